@@ -4,6 +4,7 @@ plugins {
 
 dependencies {
     implementation(project(":web"))
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
 
     runtimeOnly("org.postgresql:postgresql")
 
@@ -14,3 +15,21 @@ dependencies {
     testImplementation("org.testcontainers:testcontainers")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine")
 }
+
+val testSourceSet = the<SourceSetContainer>()["test"]
+
+tasks.named<Test>("test") {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+tasks.register<Test>("benchmark") {
+    group = "verification"
+    description = "Run Testcontainers benchmarks (tests tagged 'benchmark')"
+    testClassesDirs = testSourceSet.output.classesDirs
+    classpath = testSourceSet.runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+}
@@ -0,0 +1,2 @@
+-- Backs the bounding-box prefilter of CoordinatesRepository.countWithinBox.
+create index if not exists coordinates_x_y_idx on coordinates (x, y);
@@ -0,0 +1,6 @@
+-- Keyset order of the full name analytics (PostgreSQL only).
+-- "full_name >= :from and (...) order by full_name, id limit n" is one range scan that stops after n rows.
+-- A prefix search also bounds the scan from below and may instead take organization_full_name_pattern_idx
+-- from organization-filters.sql and sort the matches when the planner expects only a few.
+create index if not exists organization_full_name_id_idx
+    on organization (full_name, id);
@@ -0,0 +1,5 @@
+-- Typeahead lookups on the organization forms (PostgreSQL only).
+-- Street prefixes go through address_upper_street_trgm_idx from organization-filters.sql;
+-- coordinate boxes through coordinates_x_y_idx from coordinates-index.sql.
+create index if not exists address_zip_code_pattern_idx
+    on address (zip_code text_pattern_ops);
@@ -0,0 +1,57 @@
+-- Bounded edit distance for the similar-name recheck of app.name-similarity.strategy=index (PostgreSQL only).
+-- Like levenshtein_less_equal from fuzzystrmatch, which that strategy does not require, it returns
+-- max_distance + 1 as soon as the distance is known to be larger. Each edit breaks at most one of the
+-- candidate's disjoint pieces, so a name within max_distance edits still contains all but max_distance of
+-- them; with two-letter pieces that strpos check rules out most names before the matrix is filled.
+-- The body is a plain string literal rather than dollar-quoted: the schema scripts are split on every semicolon
+-- outside of quotes, and dollar quotes are not recognized.
+create or replace function name_distance_within(existing text, candidate text, max_distance integer)
+    returns integer
+    language plpgsql immutable strict parallel safe
+as '
+declare
+    n integer := length(existing);
+    m integer := length(candidate);
+    pieces integer := greatest(max_distance + 1, m / 2);
+    found integer := 0;
+    previous_row integer[];
+    current_row integer[];
+    letter text;
+    row_min integer;
+begin
+    if abs(n - m) > max_distance then
+        return max_distance + 1;
+    end if;
+    for p in 0 .. pieces - 1 loop
+        if strpos(existing, substr(candidate, p * m / pieces + 1, (p + 1) * m / pieces - p * m / pieces)) > 0 then
+            found := found + 1;
+            exit when found >= pieces - max_distance;
+        end if;
+    end loop;
+    if found < pieces - max_distance then
+        return max_distance + 1;
+    end if;
+    previous_row := array_fill(0, array[m + 1]);
+    current_row := array_fill(0, array[m + 1]);
+    for j in 0 .. m loop
+        previous_row[j + 1] := j;
+    end loop;
+    for i in 1 .. n loop
+        letter := substr(existing, i, 1);
+        current_row[1] := i;
+        row_min := i;
+        for j in 1 .. m loop
+            current_row[j + 1] := least(
+                    previous_row[j + 1] + 1,
+                    current_row[j] + 1,
+                    previous_row[j] + case when letter = substr(candidate, j, 1) then 0 else 1 end);
+            row_min := least(row_min, current_row[j + 1]);
+        end loop;
+        if row_min > max_distance then
+            return max_distance + 1;
+        end if;
+        previous_row := current_row;
+    end loop;
+    return least(previous_row[m + 1], max_distance + 1);
+end;
+';
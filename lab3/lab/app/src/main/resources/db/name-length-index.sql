@@ -0,0 +1,5 @@
+-- Length bands for the similar-name recheck of app.name-similarity.strategy=index (PostgreSQL only).
+create index if not exists organization_name_length_idx
+    on organization (length(btrim(name)));
+create index if not exists organization_full_name_length_idx
+    on organization (length(btrim(full_name)));
@@ -0,0 +1,6 @@
+-- Needed only by app.name-similarity.strategy=database (PostgreSQL only); not in the
+-- default schema-locations, so the default strategy never needs the extension.
+-- List it in spring.sql.init.schema-locations with that strategy, or create the
+-- extension once as a role that may. The trigram indexes it uses are in
+-- organization-filters.sql.
+create extension if not exists fuzzystrmatch;
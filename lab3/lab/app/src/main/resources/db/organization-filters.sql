@@ -0,0 +1,26 @@
+-- Indexes behind the list filters (PostgreSQL only).
+-- prefix: "col like 'v%' escape '\'" needs pattern ops to use a btree under a non-C collation.
+-- contains / ilike: "upper(col) like '%V%'" uses the upper() trigram indexes below; the
+-- organization ones also serve app.name-similarity.strategy=database.
+create extension if not exists pg_trgm;
+
+create index if not exists organization_upper_name_trgm_idx
+    on organization using gin (upper(name) gin_trgm_ops);
+create index if not exists organization_upper_full_name_trgm_idx
+    on organization using gin (upper(full_name) gin_trgm_ops);
+
+create index if not exists organization_name_pattern_idx
+    on organization (name text_pattern_ops);
+create index if not exists organization_full_name_pattern_idx
+    on organization (full_name text_pattern_ops);
+create index if not exists address_street_pattern_idx
+    on address (street text_pattern_ops);
+create index if not exists address_upper_street_trgm_idx
+    on address using gin (upper(street) gin_trgm_ops);
+
+create index if not exists organization_annual_turnover_idx
+    on organization (annual_turnover);
+create index if not exists organization_employees_count_idx
+    on organization (employees_count);
+create index if not exists organization_rating_idx
+    on organization (rating);
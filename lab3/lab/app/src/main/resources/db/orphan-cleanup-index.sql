@@ -0,0 +1,5 @@
+-- Postgres does not index foreign keys on its own; the targeted orphan
+-- cleanup probes these for every candidate address and coordinates row.
+create index if not exists organization_coordinates_id_idx on organization (coordinates_id);
+create index if not exists organization_official_address_id_idx on organization (official_address_id);
+create index if not exists organization_postal_address_id_idx on organization (postal_address_id);
@@ -0,0 +1,113 @@
+package com.example.orgmanager.repository;
+
+import com.example.orgmanager.model.Address;
+import com.example.orgmanager.model.Coordinates;
+import com.example.orgmanager.model.Organization;
+import com.example.orgmanager.model.OrganizationType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every organization gets its own coordinates and addresses, so rendering a
+ * table page would cost extra selects per row if the listing queries did
+ * not fetch the associations up front.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrganizationListingQueryCountTest {
+    private static final int PAGE_SIZE = 10;
+    private static final int ROWS = 25;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            organizationRepository.save(organization(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pageNeedsOneSelectPlusCount() {
+        render(organizationRepository.findAll(PageRequest.of(1, PAGE_SIZE, Sort.by("name"))));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void filteredPageNeedsOneSelectPlusCount() {
+        render(organizationRepository.findPage(
+                OrganizationSpecifications.equalTo("type", OrganizationType.COMMERCIAL),
+                PageRequest.of(1, PAGE_SIZE, Sort.by("name"))));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void sliceNeedsOneSelect() {
+        render(organizationRepository.findSlice(
+                OrganizationSpecifications.equalTo("officialAddress.street", "Official 3")
+                        .or(OrganizationSpecifications.equalTo("type", OrganizationType.COMMERCIAL)),
+                PageRequest.of(1, PAGE_SIZE, Sort.by("name"))));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static void render(Iterable<Organization> rows) {
+        int rendered = 0;
+        for (Organization org : rows) {
+            assertThat(org.getCoordinates().getX()).isNotNull();
+            assertThat(org.getOfficialAddress().getStreet()).startsWith("Official");
+            assertThat(org.getPostalAddress().getStreet()).startsWith("Postal");
+            rendered++;
+        }
+        assertThat(rendered).isEqualTo(PAGE_SIZE);
+    }
+
+    private static Organization organization(int i) {
+        Organization o = new Organization();
+        o.setName("Org " + (char) ('A' + i));
+        o.setFullName("Organization " + i);
+        o.setRating(1.0);
+        o.setEmployeesCount(10L);
+        o.setAnnualTurnover(100f);
+        o.setType(OrganizationType.COMMERCIAL);
+
+        Coordinates c = new Coordinates();
+        c.setX(i);
+        c.setY((float) i);
+        o.setCoordinates(c);
+
+        Address official = new Address();
+        official.setStreet("Official " + i);
+        o.setOfficialAddress(official);
+
+        Address postal = new Address();
+        postal.setStreet("Postal " + i);
+        o.setPostalAddress(postal);
+        return o;
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.orgmanager.repository;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.IntStream;
 
 import com.example.orgmanager.model.Address;
 import com.example.orgmanager.model.Coordinates;
@@ -11,12 +11,20 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+// the configured H2 URL sorts NULLs like PostgreSQL, which keyset pagination relies on
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class OrganizationRepositoryTest {
 
     @Autowired
@@ -59,40 +67,58 @@ class OrganizationRepositoryTest {
                 .name("C").fullName("Alpine LLC").rating(1.0).employees(1).turnover(5f)
                 .build());
 
-        List<Organization> list;
-        try (var stream = organizationRepository
-                .streamByFullNameStartingWith("Al")) {
-            list = stream.toList();
+        Slice<OrganizationRepository.FullNameProjection> slice = organizationRepository
+                .findFullNamesLike("Al%", "Al", Integer.MIN_VALUE, PageRequest.of(0, 10));
+        assertThat(slice.getContent()).extracting(OrganizationRepository.FullNameProjection::getFullName)
+                .containsExactly("Alpha Corp", "Alpine LLC");
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    void findFullNamesGreaterThanPagesByNameAndId() {
+        List<Integer> ids = new ArrayList<>();
+        for (String fullName : List.of("Beta", "Gamma", "Delta", "Gamma", "Alpha")) {
+            ids.add(organizationRepository.save(org()
+                    .name("N" + ids.size()).fullName(fullName).rating(1.0).employees(1).turnover(5f)
+                    .build()).getId());
         }
-        assertThat(list).extracting(Organization::getFullName)
-                .containsExactlyInAnyOrder("Alpha Corp", "Alpine LLC");
+
+        Slice<OrganizationRepository.FullNameProjection> first = organizationRepository
+                .findFullNamesGreaterThan("Beta", "Beta", Integer.MAX_VALUE, PageRequest.of(0, 2));
+        assertThat(first.getContent()).extracting(OrganizationRepository.FullNameProjection::getId)
+                .containsExactly(ids.get(2), ids.get(1));
+        assertThat(first.hasNext()).isTrue();
+
+        Slice<OrganizationRepository.FullNameProjection> second = organizationRepository
+                .findFullNamesGreaterThan("Beta", "Gamma", ids.get(1), PageRequest.of(0, 2));
+        assertThat(second.getContent()).extracting(OrganizationRepository.FullNameProjection::getId)
+                .containsExactly(ids.get(3));
+        assertThat(second.hasNext()).isFalse();
     }
 
     @Test
-    void findTop5ByTurnoverReturnsTop5SortedDesc() {
+    void findTurnoverLeadersReturnsTopSortedDescWithIdTieBreak() {
+        List<Integer> ids = new ArrayList<>();
         for (int index = 1; index <= 8; index++) {
-            organizationRepository.save(org()
+            ids.add(organizationRepository.save(org()
                     .name("N" + index)
                     .fullName("Full" + index)
                     .rating(1.0)
                     .employees(index)
                     .turnover(index * 10f)
-                    .build());
+                    .build()).getId());
         }
+        Integer tied = organizationRepository.save(org()
+                .name("N8bis").fullName("Full8bis").rating(1.0).employees(3).turnover(80f)
+                .build()).getId();
 
-        List<Organization> top5 = organizationRepository
-                .findTop5ByOrderByAnnualTurnoverDesc();
-        List<Float> expectedTurnover = IntStream
-                .iterate(8,
-                        value -> value > 3,
-                        value -> value - 1)
-                .mapToObj(value -> Float.valueOf(value * 10f))
-                .toList();
+        List<OrganizationRepository.TurnoverProjection> top5 = organizationRepository
+                .findTurnoverLeaders(PageRequest.of(0, 5));
 
         assertThat(top5)
-                .hasSize(5)
-                .extracting(Organization::getAnnualTurnover)
-                .containsExactlyElementsOf(expectedTurnover);
+                .extracting(OrganizationRepository.TurnoverProjection::getId)
+                .containsExactly(ids.get(7), tied, ids.get(6), ids.get(5), ids.get(4));
+        assertThat(top5.get(1).getEmployeesCount()).isEqualTo(3L);
     }
 
     @Test
@@ -126,6 +152,148 @@ class OrganizationRepositoryTest {
                 .isEmpty();
     }
 
+    @Test
+    void deleteUnassignedInOnlyTouchesUnreferencedCandidates() {
+        Organization owner = organizationRepository.save(org()
+                .name("A").fullName("A inc").rating(5.0).employees(10).turnover(100f)
+                .build());
+
+        Address candidate = new Address();
+        candidate.setStreet("Candidate");
+        addressRepository.save(candidate);
+        Address bystander = new Address();
+        bystander.setStreet("Bystander");
+        addressRepository.save(bystander);
+
+        Coordinates candidateCoords = new Coordinates();
+        candidateCoords.setX(1);
+        candidateCoords.setY(2f);
+        coordinatesRepository.save(candidateCoords);
+
+        int removedAddr = addressRepository.deleteUnassignedIn(List.of(
+                candidate.getId(), owner.getOfficialAddress().getId()));
+        List<Long> unassignedCoords = coordinatesRepository.findUnassignedIdsForUpdate(List.of(
+                candidateCoords.getId(), owner.getCoordinates().getId()));
+
+        entityManager.clear();
+
+        assertThat(removedAddr).isEqualTo(1);
+        assertThat(addressRepository.findById(candidate.getId())).isEmpty();
+        assertThat(addressRepository.findById(bystander.getId())).isPresent();
+        assertThat(addressRepository.findById(owner.getOfficialAddress().getId())).isPresent();
+        assertThat(unassignedCoords).containsExactly(candidateCoords.getId());
+    }
+
+    @Test
+    void filterOperatorsMatchExpectedRows() {
+        organizationRepository.save(org()
+                .name("Alpha").fullName("F1").rating(1.0).employees(3).turnover(5f).build());
+        organizationRepository.save(org()
+                .name("alphabet").fullName("F2").rating(2.5).employees(8).turnover(5f).build());
+        organizationRepository.save(org()
+                .name("Gamma Alpha").fullName("F3").rating(4.0).employees(5).turnover(5f).build());
+        organizationRepository.save(org()
+                .name("Beta_1").fullName("F4").rating(4.5).employees(1).turnover(5f).build());
+        organizationRepository.save(org()
+                .name("BetaX1").fullName("F5").rating(5.0).employees(2).turnover(5f).build());
+
+        assertThat(names(OrganizationSpecifications.startsWith("name", "Al")))
+                .containsExactly("Alpha");
+        assertThat(names(OrganizationSpecifications.startsWith("name", "Beta_")))
+                .containsExactly("Beta_1");
+        assertThat(names(OrganizationSpecifications.contains("name", "Alpha")))
+                .containsExactly("Alpha", "Gamma Alpha");
+        assertThat(names(OrganizationSpecifications.containsIgnoreCase("name", "ALPHA")))
+                .containsExactly("Alpha", "alphabet", "Gamma Alpha");
+        assertThat(names(OrganizationSpecifications.between("rating", 2.5, 4.5)))
+                .containsExactly("alphabet", "Gamma Alpha", "Beta_1");
+        assertThat(names(OrganizationSpecifications.<Long>between("employeesCount", null, 3L)
+                .and(OrganizationSpecifications.containsIgnoreCase("name", "a"))))
+                .containsExactly("Alpha", "Beta_1", "BetaX1");
+    }
+
+    private List<String> names(Specification<Organization> spec) {
+        return organizationRepository.findPage(spec, PageRequest.of(0, 10, Sort.by("rating")))
+                .map(Organization::getName)
+                .getContent();
+    }
+
+    @Test
+    void lookupQueriesMatchPrefixesAndBoxes() {
+        for (String[] row : new String[][] {{"Lenina", "101000"}, {"lesnaya", null}, {"Mira", "101500"}}) {
+            Address address = new Address();
+            address.setStreet(row[0]);
+            address.setZipCode(row[1]);
+            addressRepository.save(address);
+        }
+        for (int i = 0; i < 5; i++) {
+            Coordinates c = new Coordinates();
+            c.setX(i * 10);
+            c.setY(i * 1.5f);
+            coordinatesRepository.save(c);
+        }
+        Pageable firstTwo = PageRequest.of(0, 2, Sort.by("street"));
+
+        Slice<AddressRepository.AddressOptionView> byStreet = addressRepository
+                .findByStreetStartingWithIgnoreCaseOrZipCodeStartingWith("LE", "LE", firstTwo);
+        assertThat(byStreet.map(AddressRepository.AddressOptionView::getStreet).getContent())
+                .containsExactly("Lenina", "lesnaya");
+        assertThat(byStreet.hasNext()).isFalse();
+        assertThat(addressRepository
+                .findByStreetStartingWithIgnoreCaseOrZipCodeStartingWith("1015", "1015", firstTwo)
+                .map(AddressRepository.AddressOptionView::getStreet)
+                .getContent())
+                .containsExactly("Mira");
+
+        Slice<CoordinatesRepository.PointProjection> box = coordinatesRepository.findByXBetweenAndYBetween(
+                5, 45, 0f, 4.5f, PageRequest.of(0, 2, Sort.by("x", "y", "id")));
+        assertThat(box.map(CoordinatesRepository.PointProjection::getX).getContent()).containsExactly(10, 20);
+        assertThat(box.hasNext()).isTrue();
+    }
+
+    @Test
+    void keysetWalkVisitsEveryRowOnceIncludingNullKeys() {
+        OrganizationType[] types = {
+                OrganizationType.PUBLIC, null, OrganizationType.TRUST, OrganizationType.PUBLIC,
+                null, OrganizationType.COMMERCIAL, OrganizationType.PUBLIC};
+        for (int i = 0; i < types.length; i++) {
+            Organization o = org()
+                    .name("K" + i).fullName(i % 2 == 0 ? "Same" : "Other").rating(1.0).employees(1).turnover(5f)
+                    .build();
+            o.setType(types[i]);
+            organizationRepository.save(o);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            assertKeysetWalkMatchesFullScan("type", direction, true);
+            assertKeysetWalkMatchesFullScan("fullName", direction, false);
+        }
+    }
+
+    private void assertKeysetWalkMatchesFullScan(String property, Sort.Direction direction, boolean nullable) {
+        Sort sort = Sort.by(direction, property).and(Sort.by(direction, "id"));
+        List<Integer> expected = organizationRepository
+                .findSlice(OrganizationSpecifications.unrestricted(), Pageable.unpaged(sort))
+                .map(Organization::getId)
+                .getContent();
+
+        List<Integer> walked = new ArrayList<>();
+        Specification<Organization> spec = OrganizationSpecifications.unrestricted();
+        Slice<Organization> slice;
+        do {
+            slice = organizationRepository.findSlice(spec, PageRequest.of(0, 2, sort));
+            slice.forEach(o -> walked.add(o.getId()));
+            Organization last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            Comparable<?> key = "type".equals(property) ? last.getType() : last.getFullName();
+            spec = OrganizationSpecifications.unrestricted().and(
+                    OrganizationSpecifications.after(property, direction, nullable, key, last.getId()));
+        } while (slice.hasNext());
+
+        assertThat(walked).as("%s %s", property, direction).containsExactlyElementsOf(expected);
+    }
+
     private static OrgBuilder org() {
         return new OrgBuilder();
     }
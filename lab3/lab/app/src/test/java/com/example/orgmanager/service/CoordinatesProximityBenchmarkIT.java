@@ -0,0 +1,181 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.model.OrganizationType;
+import com.example.orgmanager.repository.CoordinatesRepository;
+import com.example.orgmanager.service.dto.OrganizationForm;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures {@link CoordinatesRepository#countWithinDistance} and
+ * {@link OrganizationService#create} while the coordinates table grows from
+ * 10k to 1M rows. New points land inside the populated area, so every check
+ * runs against real neighbours. Run with {@code ./gradlew :app:benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CoordinatesProximityBenchmarkIT {
+    private static final int[] TABLE_SIZES = {10_000, 100_000, 1_000_000};
+    private static final int POINTS_PER_COLUMN = 1000;
+    private static final int MIN_X = -523;
+    private static final int MAX_Y = 476;
+    private static final int WARM_UP = 20;
+    private static final int SAMPLES = 200;
+    private static final int COLUMNS_USED = 10;
+    private static final double ALLOWED_GROWTH = 3d;
+    private static final long NOISE_NANOS = 2_000_000L;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoordinatesProximityBenchmarkIT.class);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("orgmgr_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQL95Dialect");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.schema-locations", () -> "classpath:db/coordinates-index.sql,"
+                + "classpath:db/name-length-index.sql,classpath:db/name-distance.sql");
+    }
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private CoordinatesRepository coordinatesRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(11);
+    private int placed;
+
+    @Test
+    void createLatencyStaysFlatAsCoordinatesGrow() {
+        Map<Integer, Long> queryMedians = new LinkedHashMap<>();
+        Map<Integer, Long> createMedians = new LinkedHashMap<>();
+        int loaded = 0;
+        for (int size : TABLE_SIZES) {
+            fillCoordinates(loaded, size);
+            loaded = size;
+            jdbcTemplate.execute("analyze coordinates");
+
+            queryMedians.put(size, measure("query", size, () -> {
+                OrganizationForm form = nextForm();
+                assertThat(coordinatesRepository.countWithinDistance(
+                        form.getCoordX(), form.getCoordY(), 1d, null)).isZero();
+            }));
+            createMedians.put(size, measure("create", size, () -> organizationService.create(nextForm())));
+        }
+
+        List<String> plan = jdbcTemplate.queryForList(
+                "explain select count(*) from coordinates c "
+                        + "where c.x between 0 and 2 and c.y between 0 and 2",
+                String.class);
+        assertThat(String.join("\n", plan)).contains("coordinates_x_y_idx");
+
+        assertFlat("query", queryMedians);
+        assertFlat("create", createMedians);
+    }
+
+    private static long measure(String label, int size, Runnable run) {
+        for (int i = 0; i < WARM_UP; i++) {
+            run.run();
+        }
+        long[] timings = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long started = System.nanoTime();
+            run.run();
+            timings[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(timings);
+        LOGGER.info(String.format(Locale.ROOT, "coordinates=%,d %s p50=%.2fms p95=%.2fms",
+                size, label, timings[SAMPLES / 2] / 1e6, timings[SAMPLES * 95 / 100] / 1e6));
+        return timings[SAMPLES / 2];
+    }
+
+    private static void assertFlat(String label, Map<Integer, Long> medians) {
+        long smallest = medians.get(TABLE_SIZES[0]);
+        long largest = medians.get(TABLE_SIZES[TABLE_SIZES.length - 1]);
+        assertThat(largest)
+                .as("%s p50 at %,d vs %,d coordinates: %s", label,
+                        TABLE_SIZES[TABLE_SIZES.length - 1], TABLE_SIZES[0], medians)
+                .isLessThan((long) (smallest * ALLOWED_GROWTH) + NOISE_NANOS);
+    }
+
+    /**
+     * Points sit on a grid with step 2, one column of {@code POINTS_PER_COLUMN}
+     * rows per x value.
+     */
+    private void fillCoordinates(int from, int to) {
+        jdbcTemplate.update(
+                "insert into coordinates (x, y) "
+                        + "select ? + (i / ?) * 2, ? - (i % ?) * 2 "
+                        + "from generate_series(?, ?) as s(i)",
+                MIN_X, POINTS_PER_COLUMN, MAX_Y, POINTS_PER_COLUMN, from, to - 1);
+    }
+
+    /**
+     * Next point halfway between two grid rows: exactly 1 away from its
+     * neighbours, so the check has to look at them but still passes.
+     */
+    private OrganizationForm nextForm() {
+        int column = placed % COLUMNS_USED;
+        int row = placed / COLUMNS_USED;
+        placed++;
+
+        OrganizationForm form = new OrganizationForm();
+        form.setName("ООО " + randomWord());
+        form.setFullName("ООО " + randomWord() + " " + randomWord());
+        form.setType(OrganizationType.COMMERCIAL);
+        form.setAnnualTurnover(200_000f);
+        form.setEmployeesCount(100L);
+        form.setRating(10.0d);
+        form.setCoordX(MIN_X + column * 2);
+        form.setCoordY((float) (MAX_Y - 1 - row * 2));
+        form.setOfficialStreet("Benchmark " + placed);
+        form.setOfficialZipCode("100000");
+        form.setPostalSameAsOfficial(true);
+        return form;
+    }
+
+    private String randomWord() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            sb.append((char) ('А' + random.nextInt(32)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.orgmanager.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the paged full name analytics with what they replaced: a query
+ * without a LIMIT whose rows were cut to 200 in Java. Nearly every row
+ * matches both searches, which is the worst case for the old version. Run
+ * with {@code ./gradlew :app:benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FullNameAnalyticsBenchmarkIT {
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 200;
+    private static final int WARM_UP = 5;
+    private static final int SAMPLES = 30;
+    private static final int UNBOUNDED_SAMPLES = 5;
+    private static final String EARLY_VALUE = "Общество 0";
+    private static final String COMMON_PREFIX = "Общество";
+    private static final Logger LOGGER = LoggerFactory.getLogger(FullNameAnalyticsBenchmarkIT.class);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("orgmgr_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQL95Dialect");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:db/organization-filters.sql,classpath:db/full-name-order-index.sql");
+    }
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("select count(*) from organization", Long.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("insert into coordinates (id, x, y) "
+                + "select i, i % 1000, i / 1000 from generate_series(1, ?) as s(i)", ROWS);
+        jdbcTemplate.update("insert into address (id, street, zip_code) "
+                + "select i, 'ул. ' || i, null from generate_series(1, ?) as s(i)", ROWS);
+        jdbcTemplate.update("insert into organization (id, name, full_name, coordinates_id, "
+                + "official_address_id, postal_address_id, annual_turnover, employees_count, rating, type) "
+                + "select i, 'ООО ' || md5(i::text), 'Общество ' || md5('full' || i), i, i, i, "
+                + "100000 + i, 1 + i % 10000, 1.0, 'COMMERCIAL' "
+                + "from generate_series(1, ?) as s(i)", ROWS);
+        jdbcTemplate.execute("analyze coordinates");
+        jdbcTemplate.execute("analyze address");
+        jdbcTemplate.execute("analyze organization");
+    }
+
+    @Test
+    void pagesStopAfterTheLimit() {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain select id, full_name "
+                + "from organization where full_name > '" + EARLY_VALUE + "' "
+                + "and full_name >= '" + EARLY_VALUE + "' "
+                + "and (full_name > '" + EARLY_VALUE + "' or id > " + Integer.MAX_VALUE + ") "
+                + "order by full_name, id limit " + (PAGE_SIZE + 1), String.class));
+        assertThat(plan).contains("organization_full_name_id_idx").contains("Limit").doesNotContain("Sort");
+
+        measure("greater-than first page", SAMPLES,
+                () -> organizationService.fullNameGreaterThan(EARLY_VALUE, null).items().size());
+        measure("greater-than 10th page", SAMPLES, () -> walk(10));
+        measure("starts-with first page", SAMPLES,
+                () -> organizationService.fullNameStartsWith(COMMON_PREFIX, null).items().size());
+        measure("unbounded query cut in java", UNBOUNDED_SAMPLES, () -> jdbcTemplate.query(
+                "select * from organization where full_name > ?", firstRows(), EARLY_VALUE));
+    }
+
+    private int walk(int pages) {
+        FullNamePage page = organizationService.fullNameGreaterThan(EARLY_VALUE, null);
+        for (int i = 1; i < pages; i++) {
+            page = organizationService.fullNameGreaterThan(EARLY_VALUE, page.nextCursor());
+        }
+        return page.items().size();
+    }
+
+    private static ResultSetExtractor<Integer> firstRows() {
+        return rs -> {
+            int read = 0;
+            while (read < PAGE_SIZE && rs.next()) {
+                read++;
+            }
+            return read;
+        };
+    }
+
+    private static void measure(String label, int samples, Supplier<Integer> run) {
+        assertThat(run.get()).as(label).isEqualTo(PAGE_SIZE);
+        for (int i = 0; i < WARM_UP; i++) {
+            run.get();
+        }
+        long[] timings = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long started = System.nanoTime();
+            run.get();
+            timings[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(timings);
+        LOGGER.info(String.format(Locale.ROOT, "%s rows=%,d p50=%.2fms p95=%.2fms",
+                label, ROWS, timings[samples / 2] / 1e6, timings[samples * 95 / 100] / 1e6));
+    }
+}
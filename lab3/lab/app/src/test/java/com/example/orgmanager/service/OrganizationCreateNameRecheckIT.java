@@ -0,0 +1,144 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.model.Organization;
+import com.example.orgmanager.model.OrganizationType;
+import com.example.orgmanager.service.dto.OrganizationForm;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts, with pg_stat_statements, the organization rows an accepted create
+ * fetches while every existing name is in its length band and none of them
+ * is in the BK-tree, as if another node had written them all.
+ */
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrganizationCreateNameRecheckIT {
+    private static final String ALPHABET = "АБВГДЕЖЗИК";
+    private static final int ROWS = 2_000;
+    private static final int NAME_LETTERS = 10;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("orgmgr_test")
+            .withUsername("test")
+            .withPassword("test")
+            .withCommand("postgres", "-c", "shared_preload_libraries=pg_stat_statements");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQL95Dialect");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:db/name-length-index.sql,classpath:db/name-distance.sql");
+        registry.add("app.name-similarity.strategy", () -> "INDEX");
+    }
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(11);
+
+    /** Written behind the service's back, after the tree was built at startup. */
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("create extension if not exists pg_stat_statements");
+        jdbcTemplate.update("delete from organization");
+        jdbcTemplate.update("delete from address");
+        jdbcTemplate.update("delete from coordinates");
+        jdbcTemplate.update("insert into coordinates (id, x, y) "
+                + "select i, i, i from generate_series(1, ?) as s(i)", ROWS);
+        jdbcTemplate.update("insert into address (id, street, zip_code) "
+                + "select i, 'ул. ' || i, null from generate_series(1, ?) as s(i)", ROWS);
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= ROWS; id++) {
+            String letters = randomLetters();
+            rows.add(new Object[] {id, "ООО " + letters, "Общество " + letters, id, id, id});
+        }
+        jdbcTemplate.batchUpdate("insert into organization (id, name, full_name, coordinates_id, "
+                + "official_address_id, postal_address_id, annual_turnover, employees_count, rating, type) "
+                + "values (?, ?, ?, ?, ?, ?, 100000, 10, 1.0, 'COMMERCIAL')", rows);
+        for (String table : List.of("organization", "address", "coordinates")) {
+            jdbcTemplate.execute("alter table " + table + " alter column id restart with " + (ROWS + 1));
+        }
+        jdbcTemplate.execute("analyze organization");
+    }
+
+    @Test
+    void acceptedCreateFetchesNoNamesFromItsLengthBand() {
+        jdbcTemplate.queryForObject("select pg_stat_statements_reset()", Object.class);
+
+        Organization created = organizationService.create(form("ООО " + "Я".repeat(NAME_LETTERS)));
+
+        assertThat(created.getId()).isNotNull();
+        assertThat(statementCount("%name_distance_within%"))
+                .as("the recheck ran in the database")
+                .isPositive();
+        assertThat(rowsFetched("%from organization%"))
+                .as("organization rows fetched with %d names in the length band", ROWS)
+                .isZero();
+    }
+
+    private long statementCount(String pattern) {
+        return jdbcTemplate.queryForObject(
+                "select coalesce(sum(calls), 0) from pg_stat_statements where query ilike ?", Long.class, pattern);
+    }
+
+    private long rowsFetched(String pattern) {
+        return jdbcTemplate.queryForObject(
+                "select coalesce(sum(rows), 0) from pg_stat_statements "
+                        + "where query ilike ? and query not ilike '%pg_stat_statements%'",
+                Long.class, pattern);
+    }
+
+    private String randomLetters() {
+        StringBuilder sb = new StringBuilder(NAME_LETTERS);
+        for (int i = 0; i < NAME_LETTERS; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static OrganizationForm form(String name) {
+        OrganizationForm form = new OrganizationForm();
+        form.setName(name);
+        form.setFullName(name + " Полное");
+        form.setType(OrganizationType.COMMERCIAL);
+        form.setAnnualTurnover(200_000f);
+        form.setEmployeesCount(100L);
+        form.setRating(10.0d);
+        form.setCoordX(-500);
+        form.setCoordY(-400f);
+        form.setOfficialStreet("Recheck");
+        form.setOfficialZipCode("100000");
+        form.setPostalSameAsOfficial(true);
+        return form;
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.orgmanager.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.example.orgmanager.service.OrganizationEventPublisher.OrganizationEvent;
+import com.example.orgmanager.service.OrganizationEventPublisher.OverflowPolicy;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class OrganizationEventPublisherTest {
+    private static final int QUEUE_CAPACITY = 2;
+    private static final int REPLAY_CAPACITY = 3;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<OrganizationEventPublisher> publishers = new ArrayList<>();
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+
+    @AfterEach
+    void shutdown() {
+        publishers.forEach(OrganizationEventPublisher::shutdown);
+    }
+
+    @Test
+    @DisplayName("a stuck subscriber neither blocks the broadcast nor delays the others")
+    void broadcastDoesNotWaitForSubscribers() throws Exception {
+        OrganizationEventPublisher publisher = publisher(OverflowPolicy.DROP_OLDEST);
+        RecordingEmitter stuck = new RecordingEmitter(new CountDownLatch(1));
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        publisher.subscribe(stuck, false, null);
+        publisher.subscribe(healthy, false, null);
+
+        long started = System.nanoTime();
+        publisher.broadcast(change("created", 1));
+        publisher.broadcast(change("updated", 1));
+
+        assertThat(healthy.next()).isEqualTo(new OrganizationEvent("created", 1));
+        assertThat(healthy.next()).isEqualTo(new OrganizationEvent("updated", 1));
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started)).isLessThan(5);
+        assertThat(stuck.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("app.sse.queue.depth").gauge().value()).isEqualTo(1d);
+        stuck.release.countDown();
+        assertThat(stuck.next()).isEqualTo(new OrganizationEvent("created", 1));
+        assertThat(stuck.next()).isEqualTo(new OrganizationEvent("updated", 1));
+    }
+
+    @Test
+    @DisplayName("an event is encoded once and the same frame goes to every subscriber")
+    void sharesEncodedFrame() throws Exception {
+        OrganizationEventPublisher publisher = publisher(OverflowPolicy.DROP_OLDEST);
+        RecordingEmitter first = new RecordingEmitter(null);
+        RecordingEmitter second = new RecordingEmitter(null);
+        publisher.subscribe(first, false, null);
+        publisher.subscribe(second, false, null);
+
+        publisher.broadcast(change("deleted", 7));
+
+        assertThat(first.next()).isEqualTo(new OrganizationEvent("deleted", 7));
+        assertThat(second.next()).isEqualTo(new OrganizationEvent("deleted", 7));
+        assertThat(first.lastFrame).isSameAs(second.lastFrame);
+        assertThat(new String((byte[]) first.lastFrame.iterator().next().getData(), StandardCharsets.UTF_8))
+                .startsWith("id:" + first.eventIds.get(0) + "\n")
+                .endsWith("-1\nevent:org\ndata:{\"type\":\"deleted\",\"id\":7}\n\n");
+    }
+
+    @Test
+    @DisplayName("changes within the window reach the pages as one batch event")
+    void coalescesWindowIntoBatch() throws Exception {
+        OrganizationEventPublisher publisher = publisher(OverflowPolicy.DROP_OLDEST, Duration.ofMillis(150));
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        publisher.subscribe(emitter, false, null);
+
+        publisher.broadcast(change("created", 1));
+        publisher.broadcast(change("created", 2));
+        publisher.broadcast(change("deleted", 3));
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(1)).schedule(flush.capture(), anyLong(), any(TimeUnit.class));
+        assertThat(emitter.frames).isEmpty();
+        flush.getValue().run();
+
+        assertThat(emitter.nextFrame())
+                .isEqualTo("event:org-batch\ndata:{\"created\":[1,2],\"deleted\":[3]}\n\n");
+        assertThat(meterRegistry.get("app.sse.events.coalesced").counter().count()).isEqualTo(3d);
+
+        publisher.broadcast(change("updated", 4));
+        verify(scheduler, times(2)).schedule(flush.capture(), anyLong(), any(TimeUnit.class));
+        flush.getValue().run();
+        assertThat(emitter.next()).isEqualTo(new OrganizationEvent("updated", 4));
+    }
+
+    @Test
+    @DisplayName("delta subscribers get the latest row of each organization in the window")
+    void deltaSubscribersGetRows() throws Exception {
+        OrganizationEventPublisher publisher = publisher(OverflowPolicy.DROP_OLDEST, Duration.ofMillis(150));
+        RecordingEmitter rows = new RecordingEmitter(null);
+        RecordingEmitter ids = new RecordingEmitter(null);
+        publisher.subscribe(rows, true, null);
+        publisher.subscribe(ids, false, null);
+
+        publisher.broadcast(OrganizationChange.created(row(1, "A", "1.0")));
+        publisher.broadcast(OrganizationChange.updated(row(1, "A", "1.0"), row(1, "B", "1.0")));
+        publisher.broadcast(OrganizationChange.updated(row(2, "C", "1.0"), row(2, "C", "2.0")));
+        publisher.broadcast(OrganizationChange.updated(row(2, "C", "2.0"), row(2, "D", "2.0")));
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(flush.capture(), anyLong(), any(TimeUnit.class));
+        flush.getValue().run();
+
+        String frame = rows.nextFrame();
+        assertThat(frame).startsWith("event:org-rows\n");
+        List<OrganizationChange> changes = OBJECT_MAPPER.readValue(
+                frame.substring(frame.indexOf("data:") + "data:".length()).strip(),
+                new TypeReference<List<OrganizationChange>>() { });
+        assertThat(changes).containsExactly(
+                OrganizationChange.created(row(1, "B", "1.0")),
+                new OrganizationChange(OrganizationChange.UPDATED, 2, row(2, "D", "2.0"), Set.of("rating", "name")));
+        assertThat(ids.nextFrame()).isEqualTo("event:org-batch\ndata:{\"created\":[1],\"updated\":[1,2]}\n\n");
+    }
+
+    @Test
+    @DisplayName("a stream resumed from Last-Event-ID gets only the windows it missed")
+    void replaysMissedWindows() throws Exception {
+        OrganizationEventPublisher publisher = publisher(OverflowPolicy.DROP_OLDEST);
+        RecordingEmitter first = new RecordingEmitter(null);
+        publisher.subscribe(first, false, null);
+        publisher.broadcast(change("created", 1));
+        assertThat(first.next().id()).isEqualTo(1);
+        String lastEventId = first.eventIds.get(0);
+        publisher.broadcast(change("updated", 1));
+        publisher.broadcast(change("deleted", 1));
+
+        RecordingEmitter resumed = new RecordingEmitter(null);
+        publisher.subscribe(resumed, false, lastEventId);
+        assertThat(resumed.next()).isEqualTo(new OrganizationEvent("updated", 1));
+        assertThat(resumed.next()).isEqualTo(new OrganizationEvent("deleted", 1));
+        publisher.broadcast(change("created", 2));
+
+        assertThat(resumed.next()).isEqualTo(new OrganizationEvent("created", 2));
+        assertThat(resumed.received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(resumed.eventIds).doesNotContain(lastEventId).doesNotHaveDuplicates();
+        assertThat(resumes("replayed")).isEqualTo(1d);
+    }
+
+    @Test
+    @DisplayName("an id that is unknown, from another run or past what can be replayed gets a resync")
+    void resyncsUnknownIds() throws Exception {
+        OrganizationEventPublisher publisher = publisher(OverflowPolicy.DROP_OLDEST);
+        RecordingEmitter first = new RecordingEmitter(null);
+        publisher.subscribe(first, false, null);
+        for (int id = 1; id <= 4; id++) {
+            publisher.broadcast(change("created", id));
+            assertThat(first.next().id()).isEqualTo(id);
+        }
+        String oldest = first.eventIds.get(0);
+        String newest = first.eventIds.get(3);
+
+        for (String lastEventId : List.of("garbage", "0-3", oldest)) {
+            RecordingEmitter resumed = new RecordingEmitter(null);
+            publisher.subscribe(resumed, false, lastEventId);
+            assertThat(resumed.nextFrame()).isEqualTo("event:resync\ndata:" + newest + "\n\n");
+            assertThat(resumed.eventIds).containsExactly(newest);
+            assertThat(resumed.frames).isEmpty();
+        }
+        assertThat(resumes(OrganizationEventPublisher.RESYNC)).isEqualTo(3d);
+        assertThat(resumes("replayed")).isZero();
+    }
+
+    @Test
+    @DisplayName("drop-oldest keeps the newest events of a full queue")
+    void dropOldest() throws Exception {
+        RecordingEmitter emitter = backlogged(OverflowPolicy.DROP_OLDEST);
+
+        emitter.release.countDown();
+
+        assertThat(emitter.next().id()).isEqualTo(1);
+        assertThat(emitter.next().id()).isEqualTo(3);
+        assertThat(emitter.next().id()).isEqualTo(4);
+        assertThat(dropped()).isEqualTo(1d);
+    }
+
+    @Test
+    @DisplayName("coalesce replaces a full backlog with a single refresh")
+    void coalesce() throws Exception {
+        RecordingEmitter emitter = backlogged(OverflowPolicy.COALESCE);
+
+        emitter.release.countDown();
+
+        assertThat(emitter.next().id()).isEqualTo(1);
+        assertThat(emitter.next()).isEqualTo(new OrganizationEvent(OrganizationEventPublisher.REFRESH, null));
+        assertThat(emitter.received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(dropped()).isEqualTo(3d);
+    }
+
+    @Test
+    @DisplayName("disconnect closes a subscriber that fell behind once its stuck send returns")
+    void disconnect() throws Exception {
+        RecordingEmitter emitter = backlogged(OverflowPolicy.DISCONNECT);
+
+        assertThat(meterRegistry.get("app.sse.subscribers").gauge().value()).isZero();
+        assertThat(meterRegistry.get("app.sse.queue.depth").gauge().value()).isZero();
+        assertThat(dropped()).isEqualTo(3d);
+        assertThat(emitter.completed.getCount()).as("completed while its send is stuck").isOne();
+        emitter.release.countDown();
+        assertThat(emitter.next().id()).isEqualTo(1);
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("a delta subscriber that falls behind gets a resync instead of losing row patches")
+    void deltaOverflowResyncs() throws Exception {
+        for (OverflowPolicy policy : OverflowPolicy.values()) {
+            RecordingEmitter emitter = backlogged(policy, true);
+
+            emitter.release.countDown();
+
+            assertThat(emitter.nextFrame()).startsWith("event:org-rows\n");
+            assertThat(emitter.nextFrame()).isEqualTo("event:resync\ndata:" + emitter.eventIds.get(1) + "\n\n");
+            assertThat(emitter.eventIds.get(1)).as(policy.name()).endsWith("-4");
+            assertThat(emitter.frames.poll(100, TimeUnit.MILLISECONDS)).as(policy.name()).isNull();
+            assertThat(emitter.completed.getCount()).as(policy.name()).isOne();
+            assertThat(meterRegistry.get("app.sse.events.dropped")
+                    .tag("policy", policy.name().toLowerCase(Locale.ROOT)).counter().count())
+                    .isEqualTo(3d);
+        }
+    }
+
+    private RecordingEmitter backlogged(OverflowPolicy policy) throws InterruptedException {
+        return backlogged(policy, false);
+    }
+
+    /** Event 1 is stuck in the send, 2 and 3 fill the queue, and 4 overflows it. */
+    private RecordingEmitter backlogged(OverflowPolicy policy, boolean delta) throws InterruptedException {
+        OrganizationEventPublisher publisher = publisher(policy);
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(1));
+        publisher.subscribe(emitter, delta, null);
+        publisher.broadcast(change("updated", 1));
+        assertThat(emitter.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int id = 2; id <= 4; id++) {
+            publisher.broadcast(change("updated", id));
+        }
+        return emitter;
+    }
+
+    private OrganizationEventPublisher publisher(OverflowPolicy policy) {
+        return publisher(policy, Duration.ZERO);
+    }
+
+    private OrganizationEventPublisher publisher(OverflowPolicy policy, Duration coalesceWindow) {
+        OrganizationEventPublisher publisher = new OrganizationEventPublisher(
+                new SseSettings(false, 0, QUEUE_CAPACITY, policy, coalesceWindow, REPLAY_CAPACITY),
+                meterRegistry, OBJECT_MAPPER, scheduler);
+        publishers.add(publisher);
+        return publisher;
+    }
+
+    private static OrganizationChange change(String type, int id) {
+        if (OrganizationChange.DELETED.equals(type)) {
+            return OrganizationChange.deleted(id);
+        }
+        return new OrganizationChange(type, id, row(id, "N" + id, "4.5"), Set.of());
+    }
+
+    private static OrganizationRow row(int id, String name, String rating) {
+        return new OrganizationRow(id, name, "Full " + id, "COMMERCIAL", "1000.0", "10", rating, "", "");
+    }
+
+    private double dropped() {
+        return meterRegistry.get("app.sse.events.dropped").counter().count();
+    }
+
+    private double resumes(String result) {
+        return meterRegistry.get("app.sse.resumes").tag("result", result).counter().count();
+    }
+
+    /**
+     * Records what is sent; with a latch, every send waits for it like a client that stopped reading.
+     * Frames are kept without their id line, which goes to {@code eventIds}.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<OrganizationEvent> received = new LinkedBlockingQueue<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        private final List<String> eventIds = new CopyOnWriteArrayList<>();
+        private volatile Set<DataWithMediaType> lastFrame;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> frame) throws IOException {
+            entered.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+            }
+            lastFrame = frame;
+            for (DataWithMediaType part : frame) {
+                String text = new String((byte[]) part.getData(), StandardCharsets.UTF_8);
+                if (text.startsWith("id:")) {
+                    eventIds.add(text.substring("id:".length(), text.indexOf('\n')));
+                    text = text.substring(text.indexOf('\n') + 1);
+                }
+                frames.add(text);
+                if (text.startsWith("event:org\n")) {
+                    String json = text.substring(text.indexOf("data:") + "data:".length(), text.indexOf("\n\n"));
+                    received.add(OBJECT_MAPPER.readValue(json, OrganizationEvent.class));
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+
+        String nextFrame() throws InterruptedException {
+            String frame = frames.poll(5, TimeUnit.SECONDS);
+            assertThat(frame).as("frame within 5 seconds").isNotNull();
+            return frame;
+        }
+
+        OrganizationEvent next() throws InterruptedException {
+            OrganizationEvent event = received.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("event within 5 seconds").isNotNull();
+            return event;
+        }
+    }
+}
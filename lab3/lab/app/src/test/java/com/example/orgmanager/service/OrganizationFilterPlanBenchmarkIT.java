@@ -0,0 +1,151 @@
+package com.example.orgmanager.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that every list filter operator is answered from an index once the
+ * organization table is large, and prints the latency of each through
+ * {@link OrganizationService#list}. The EXPLAIN statements mirror the SQL
+ * the filter specifications render, with the bound values inlined as in a
+ * custom plan. Run with {@code ./gradlew :app:benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrganizationFilterPlanBenchmarkIT {
+    private static final int ROWS = 200_000;
+    private static final int WARM_UP = 10;
+    private static final int SAMPLES = 50;
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrganizationFilterPlanBenchmarkIT.class);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("orgmgr_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQL95Dialect");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:db/organization-filters.sql");
+    }
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("select count(*) from organization", Long.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("insert into coordinates (id, x, y) "
+                + "select i, i % 1000, i / 1000 from generate_series(1, ?) as s(i)", ROWS);
+        jdbcTemplate.update("insert into address (id, street, zip_code) "
+                + "select i, 'ул. ' || md5('street' || i), null from generate_series(1, ?) as s(i)", ROWS);
+        jdbcTemplate.update("insert into organization (id, name, full_name, coordinates_id, "
+                + "official_address_id, postal_address_id, annual_turnover, employees_count, rating, type) "
+                + "select i, 'ООО ' || md5(i::text), 'Общество ' || md5('full' || i), i, i, i, "
+                + "100000 + i, 1 + i % 10000, 0.005 + (i % 1000) / 200.0, 'COMMERCIAL' "
+                + "from generate_series(1, ?) as s(i)", ROWS);
+        jdbcTemplate.execute("analyze coordinates");
+        jdbcTemplate.execute("analyze address");
+        jdbcTemplate.execute("analyze organization");
+    }
+
+    @Test
+    void everyOperatorUsesAnIndex() {
+        String hash = jdbcTemplate.queryForObject("select md5('777')", String.class);
+        String prefix = "ООО " + hash.substring(0, 3);
+        String fragment = hash.substring(4, 12);
+        String street = jdbcTemplate.queryForObject("select md5('street777')", String.class).substring(4, 12);
+
+        assertPlanUses("organization_name_pattern_idx",
+                "select id from organization where name like '" + prefix + "%' escape '\\'");
+        assertPlanUses("organization_upper_name_trgm_idx",
+                "select id from organization where upper(name) like '%" + upper(fragment) + "%' escape '\\'");
+        assertPlanUses("organization_upper_name_trgm_idx",
+                "select id from organization where upper(name) like '%" + upper(fragment) + "%' escape '\\' "
+                        + "and name like '%" + fragment + "%' escape '\\'");
+        assertPlanUses("address_upper_street_trgm_idx",
+                "select id from address where upper(street) like '%" + upper(street) + "%' escape '\\'");
+        assertPlanUses("organization_annual_turnover_idx",
+                "select id from organization where annual_turnover between 150000 and 150100");
+        assertPlanUses("organization_employees_count_idx",
+                "select id from organization where employees_count between 10 and 12");
+        assertPlanUses("organization_rating_idx",
+                "select id from organization where rating between 4.99 and 5.0");
+
+        measure("prefix", condition("name", FilterOperator.PREFIX, prefix));
+        measure("contains", condition("name", FilterOperator.CONTAINS, fragment));
+        measure("ilike", condition("officialStreet", FilterOperator.ILIKE, upper(street)));
+        measure("range", new OrganizationFilter(List.of(), List.of(
+                new OrganizationFilter.Range("employeesCount", Optional.of("10"), Optional.of("12")))));
+    }
+
+    private void assertPlanUses(String index, String sql) {
+        List<String> plan = jdbcTemplate.queryForList("explain " + sql, String.class);
+        assertThat(String.join("\n", plan)).as(sql).contains(index);
+    }
+
+    private void measure(String label, OrganizationFilter filter) {
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id"));
+        assertThat(organizationService.list(filter, pageable).getTotalElements()).as(label).isPositive();
+        for (int i = 0; i < WARM_UP; i++) {
+            organizationService.list(filter, pageable);
+        }
+        long[] timings = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long started = System.nanoTime();
+            organizationService.list(filter, pageable);
+            timings[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(timings);
+        LOGGER.info(String.format(Locale.ROOT, "filter=%s rows=%,d list p50=%.2fms p95=%.2fms",
+                label, ROWS, timings[SAMPLES / 2] / 1e6, timings[SAMPLES * 95 / 100] / 1e6));
+    }
+
+    private static OrganizationFilter condition(String field, FilterOperator operator, String value) {
+        return new OrganizationFilter(List.of(new OrganizationFilter.Condition(field, operator, value)), List.of());
+    }
+
+    private static String upper(String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+}
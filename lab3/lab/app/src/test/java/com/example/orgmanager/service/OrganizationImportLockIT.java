@@ -0,0 +1,118 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.model.ImportJob;
+import com.example.orgmanager.model.ImportStatus;
+import com.example.orgmanager.repository.OrganizationRepository;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports more organizations in one transaction than the server's lock table
+ * has slots, with the default name lock backend. One lock per name in the
+ * lock table, as advisory locks take, would fail with "out of shared memory".
+ */
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrganizationImportLockIT {
+    private static final String DIGITS = "АБВГДЕЖЗИКЛМНОПРСТУФ";
+    private static final int CODE_DIGITS = 3;
+    private static final int MAX_LOCKS_PER_TRANSACTION = 10;
+    private static final int MAX_CONNECTIONS = 20;
+    private static final int ITEMS = 1_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("orgmgr_test")
+            .withUsername("test")
+            .withPassword("test")
+            .withCommand("postgres",
+                    "-c", "max_locks_per_transaction=" + MAX_LOCKS_PER_TRANSACTION,
+                    "-c", "max_connections=" + MAX_CONNECTIONS);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQL95Dialect");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:db/name-length-index.sql,classpath:db/name-distance.sql");
+    }
+
+    @Autowired
+    private OrganizationImportService importService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importLocksMoreNamesThanTheLockTableHolds() {
+        long slots = setting("max_locks_per_transaction") * setting("max_connections");
+        assertThat(slots).as("lock table slots").isLessThan(ITEMS);
+
+        ImportJob job = importService.importFromYaml(new MockMultipartFile(
+                "file", "organizations.yaml", "application/x-yaml", payload().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(job.getStatus()).as(job.getErrorMessage()).isEqualTo(ImportStatus.SUCCESS);
+        assertThat(job.getImportedCount()).isEqualTo(ITEMS);
+        assertThat(organizationRepository.count()).isEqualTo(ITEMS);
+    }
+
+    private long setting(String name) {
+        return Long.parseLong(jdbcTemplate.queryForObject("show " + name, String.class));
+    }
+
+    /** Every name differs from every other in at least one run of three letters, so none is too similar. */
+    private static String payload() {
+        StringBuilder yaml = new StringBuilder("organizations:\n");
+        for (int i = 0; i < ITEMS; i++) {
+            String code = code(i);
+            yaml.append("  - name: \"ООО ").append(code).append("\"\n")
+                    .append("    fullName: \"Общество ").append(code).append("\"\n")
+                    .append("    type: COMMERCIAL\n")
+                    .append("    annualTurnover: 200000.0\n")
+                    .append("    employeesCount: 100\n")
+                    .append("    rating: 1.0\n")
+                    .append("    coordinates:\n")
+                    .append("      x: ").append(i - ITEMS / 2).append('\n')
+                    .append("      y: 0.0\n")
+                    .append("    officialAddress:\n")
+                    .append("      street: \"ул. Импортная, ").append(i).append("\"\n")
+                    .append("    postalSameAsOfficial: true\n");
+        }
+        return yaml.toString();
+    }
+
+    private static String code(int value) {
+        StringBuilder code = new StringBuilder();
+        int rest = value;
+        for (int i = 0; i < CODE_DIGITS; i++) {
+            code.append(String.valueOf(DIGITS.charAt(rest % DIGITS.length())).repeat(CODE_DIGITS));
+            rest /= DIGITS.length();
+        }
+        return code.toString();
+    }
+}
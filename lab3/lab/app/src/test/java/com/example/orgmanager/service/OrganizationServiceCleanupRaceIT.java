@@ -63,6 +63,10 @@ class OrganizationServiceCleanupRaceIT {
         registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
         registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQL95Dialect");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:db/name-length-index.sql,classpath:db/name-distance.sql");
     }
 
     @Autowired
@@ -80,6 +84,9 @@ class OrganizationServiceCleanupRaceIT {
     @Autowired
     private PlatformTransactionManager transactionManager;
 
+    @Autowired
+    private OrphanCleanupScheduler orphanCleanupScheduler;
+
     private Organization targetOrg;
     private Address orphanAddress;
 
@@ -197,6 +204,51 @@ class OrganizationServiceCleanupRaceIT {
         assertThat(addressRepository.findById(orphanAddress.getId())).isPresent();
     }
 
+    @Test
+    void updateRemovesOnlyRowsTheOrganizationReleased() {
+        Long oldCoordinates = targetOrg.getCoordinates().getId();
+        Long oldOfficial = targetOrg.getOfficialAddress().getId();
+        Long oldPostal = targetOrg.getPostalAddress().getId();
+        Organization sharing = organizationService.create(buildForm(
+                "Sharing", 40, 40f, "Shared official", "33333", "Shared postal", "44444"));
+
+        OrganizationForm form = buildForm(
+                "Target", 20, 20f, "Moved official", "55555", null, null);
+        form.setId(targetOrg.getId());
+        form.setPostalAddressId(sharing.getPostalAddress().getId());
+        organizationService.update(targetOrg.getId(), form);
+        orphanCleanupScheduler.drain();
+
+        assertThat(orphanCleanupScheduler.queueDepth()).isZero();
+        assertThat(addressRepository.findById(oldOfficial)).isEmpty();
+        assertThat(addressRepository.findById(oldPostal)).isEmpty();
+        assertThat(coordinatesRepository.findById(oldCoordinates)).isEmpty();
+        // never referenced by the updated organization, so not a candidate
+        assertThat(addressRepository.findById(orphanAddress.getId())).isPresent();
+        assertThat(addressRepository.findById(sharing.getPostalAddress().getId())).isPresent();
+    }
+
+    @Test
+    void deleteKeepsRowsStillReferencedByOtherOrganizations() {
+        Organization sharing = organizationService.create(buildForm(
+                "Sharing", 40, 40f, "Shared official", "33333", "Shared postal", "44444"));
+        OrganizationForm form = buildForm(
+                "Target", 10, 10f, null, null, null, null);
+        form.setId(targetOrg.getId());
+        form.setCoordinatesId(targetOrg.getCoordinates().getId());
+        form.setOfficialAddressId(sharing.getOfficialAddress().getId());
+        form.setPostalAddressId(targetOrg.getPostalAddress().getId());
+        organizationService.update(targetOrg.getId(), form);
+
+        organizationService.delete(targetOrg.getId());
+        orphanCleanupScheduler.drain();
+
+        assertThat(coordinatesRepository.findById(targetOrg.getCoordinates().getId())).isEmpty();
+        assertThat(addressRepository.findById(targetOrg.getPostalAddress().getId())).isEmpty();
+        assertThat(addressRepository.findById(sharing.getOfficialAddress().getId())).isPresent();
+        assertThat(addressRepository.findById(orphanAddress.getId())).isPresent();
+    }
+
     @TestConfiguration
     @EnableAspectJAutoProxy
     static class TestConfig {
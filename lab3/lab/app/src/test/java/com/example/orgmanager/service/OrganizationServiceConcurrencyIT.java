@@ -8,7 +8,12 @@ import com.example.orgmanager.repository.AddressRepository;
 import com.example.orgmanager.repository.CoordinatesRepository;
 import com.example.orgmanager.repository.OrganizationRepository;
 import com.example.orgmanager.service.dto.OrganizationForm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ValidationException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -16,6 +21,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,6 +44,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 class OrganizationServiceConcurrencyIT {
 
     private static final int STRESS_RUNS = 3;
+    private static final int CREATE_THREADS = 4;
+    private static final int CREATE_ROUNDS = 5;
     private static final Duration FUTURE_TIMEOUT = Duration.ofSeconds(30);
 
     @Container
@@ -57,6 +65,10 @@ class OrganizationServiceConcurrencyIT {
         registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
         registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQL95Dialect");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:db/name-length-index.sql,classpath:db/name-distance.sql");
     }
 
     @Autowired
@@ -71,11 +83,18 @@ class OrganizationServiceConcurrencyIT {
     @Autowired
     private CoordinatesRepository coordinatesRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private Organization orgA;
     private Organization orgB;
 
     @BeforeEach
     void setUp() {
+        organizationRepository.deleteAll();
+        addressRepository.deleteAll();
+        coordinatesRepository.deleteAll();
+
         orgA = createOrganization("Atlas", 10, 10f, "Address 1");
         orgB = createOrganization("Zephyr", 20, 20f, "Address 2");
     }
@@ -115,6 +134,71 @@ class OrganizationServiceConcurrencyIT {
         assertThat(coordinatesRepository.count()).isEqualTo(2);
     }
 
+    /**
+     * Every round starts all creates together. Their names have the same
+     * length, so each one reads the length band the others insert into and
+     * SERIALIZABLE has to abort all but one; they still differ in at least
+     * three letters, so none is rejected as similar.
+     */
+    @Test
+    void concurrentCreatesAreRetriedInsteadOfRejected() throws Exception {
+        long before = organizationRepository.count();
+        double retriesBefore = createRetries();
+        ExecutorService executor = Executors.newFixedThreadPool(CREATE_THREADS);
+        CyclicBarrier barrier = new CyclicBarrier(CREATE_THREADS);
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < CREATE_THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < CREATE_ROUNDS; round++) {
+                        barrier.await();
+                        try {
+                            organizationService.create(buildCreateForm(thread, round));
+                        } catch (ValidationException ex) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(FUTURE_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(rejected).as("creates rejected instead of retried").hasValue(0);
+        assertThat(organizationRepository.count()).isEqualTo(before + CREATE_THREADS * CREATE_ROUNDS);
+        assertThat(createRetries() - retriesBefore).as("app.tx.retries for organization.create").isPositive();
+    }
+
+    private double createRetries() {
+        Counter retries = meterRegistry.find("app.tx.retries").tag("operation", "organization.create").counter();
+        return retries == null ? 0d : retries.count();
+    }
+
+    /** "ООО ББББВВВ": four letters for the thread, three for the round. */
+    private OrganizationForm buildCreateForm(int thread, int round) {
+        String suffix = String.valueOf((char) ('Б' + thread)).repeat(4)
+                + String.valueOf((char) ('Б' + round)).repeat(3);
+        OrganizationForm form = new OrganizationForm();
+        form.setName("ООО " + suffix);
+        form.setFullName("ООО Полное " + suffix);
+        form.setType(OrganizationType.COMMERCIAL);
+        form.setAnnualTurnover(200_000f);
+        form.setEmployeesCount(100L);
+        form.setRating(10.0d);
+        form.setCoordX(100 + thread * 10);
+        form.setCoordY((float) (-1000 - round * 10));
+        form.setOfficialStreet("Concurrent " + thread + "-" + round);
+        form.setOfficialZipCode("100000");
+        form.setPostalSameAsOfficial(true);
+        return form;
+    }
+
     private void runConcurrently(Runnable first, Runnable second)
             throws InterruptedException, ExecutionException, TimeoutException {
         ExecutorService executor = Executors.newFixedThreadPool(2);
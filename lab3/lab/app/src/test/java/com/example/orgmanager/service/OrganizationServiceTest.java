@@ -1,6 +1,5 @@
 package com.example.orgmanager.service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,8 +10,14 @@ import com.example.orgmanager.model.OrganizationType;
 import com.example.orgmanager.repository.AddressRepository;
 import com.example.orgmanager.repository.CoordinatesRepository;
 import com.example.orgmanager.repository.OrganizationRepository;
+import com.example.orgmanager.service.analytics.TurnoverLeader;
+import com.example.orgmanager.service.analytics.TurnoverLeaderboard;
 import com.example.orgmanager.service.lock.DatabaseLockService;
+import com.example.orgmanager.service.lock.LocalNameLocks;
 import com.example.orgmanager.service.dto.OrganizationForm;
+import com.example.orgmanager.service.similarity.NameSimilarityService;
+import com.example.orgmanager.service.spatial.CoordinatesProximityService;
+import com.example.orgmanager.service.tx.SerializableTransactionExecutor;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,11 +29,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionCallback;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -47,30 +57,55 @@ class OrganizationServiceTest {
     @Mock
     private OrganizationEventPublisher eventPublisher;
     @Mock
+    private OrganizationDataVersion dataVersion;
+    @Mock
     private DatabaseLockService databaseLockService;
+    @Mock
+    private LocalNameLocks localNameLocks;
+    @Mock
+    private NameSimilarityService nameSimilarityService;
+    @Mock
+    private CoordinatesProximityService coordinatesProximityService;
+    @Mock
+    private TurnoverLeaderboard turnoverLeaderboard;
+    @Mock
+    private SerializableTransactionExecutor serializableExecutor;
+    @Mock
+    private OrphanCleanupScheduler orphanCleanupScheduler;
 
     @InjectMocks
     private OrganizationService service;
 
     @Test
-    @DisplayName("averageEmployeesTop10ByTurnover handles nulls "
-            + "and averages correctly")
-    void averageEmployeesTop10ByTurnover() {
-        List<Organization> top10 = new ArrayList<>();
-        for (int i = 0; i < 10; i++) {
-            Organization o = new Organization();
-            // mix of nulls and values
-            o.setEmployeesCount((i % 3 == 0)
-                    ? null
-                    : (long) (i * 10));
-            top10.add(o);
-        }
-        when(organizationRepository.streamTop10ByOrderByAnnualTurnoverDesc())
-                .thenReturn(top10.stream());
-
-        double avg = service.averageEmployeesTop10ByTurnover();
-        // employees: 0,10,20,0,40,50,0,70,80,0 -> sum=270, avg=27.0
-        assertThat(avg).isEqualTo(27.0);
+    @DisplayName("turnover analytics are answered by the leaderboard")
+    void turnoverAnalyticsComeFromLeaderboard() {
+        List<TurnoverLeader> top5 = List.of(new TurnoverLeader(1, "A", 500f, 10L));
+        when(turnoverLeaderboard.top(5)).thenReturn(top5);
+        when(turnoverLeaderboard.averageEmployees(10)).thenReturn(27.0);
+
+        assertThat(service.top5ByTurnover()).isSameAs(top5);
+        assertThat(service.averageEmployeesTop10ByTurnover()).isEqualTo(27.0);
+        verifyNoInteractions(organizationRepository);
+    }
+
+    @Test
+    @DisplayName("fullNameGreaterThan() resumes after the cursor it handed out")
+    void fullNameGreaterThanResumesAfterCursor() {
+        OrganizationRepository.FullNameProjection last = mock(OrganizationRepository.FullNameProjection.class);
+        when(last.getId()).thenReturn(7);
+        when(last.getFullName()).thenReturn("Delta");
+        when(organizationRepository.findFullNamesGreaterThan(eq("B"), eq("B"), eq(Integer.MAX_VALUE), any()))
+                .thenReturn(new SliceImpl<>(List.of(last), PageRequest.of(0, 200), true));
+        when(organizationRepository.findFullNamesGreaterThan(eq("B"), eq("Delta"), eq(7), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        FullNamePage first = service.fullNameGreaterThan("B", null);
+        assertThat(first.items()).containsExactly(last);
+        assertThat(first.nextCursor()).isNotNull();
+
+        FullNamePage second = service.fullNameGreaterThan("B", first.nextCursor());
+        assertThat(second.items()).isEmpty();
+        assertThat(second.nextCursor()).isNull();
     }
 
     @Test
@@ -90,7 +125,7 @@ class OrganizationServiceTest {
     void listWithNameFilter() {
         Page<Organization> expected = new PageImpl<>(
                 List.of(new Organization()));
-        when(organizationRepository.findByName(eq("Acme"), any()))
+        when(organizationRepository.findPage(any(), any()))
                 .thenReturn(expected);
 
         OrganizationFilter filter = new OrganizationFilter(
@@ -101,7 +136,38 @@ class OrganizationServiceTest {
                 filter,
                 PageRequest.of(0, 10));
         assertThat(page.getContent()).hasSize(1);
-        verify(organizationRepository).findByName(eq("Acme"), any());
+        verify(organizationRepository).findPage(any(), any());
+    }
+
+    @Test
+    @DisplayName("scroll() hands out a cursor for the last row and rejects it under another sort")
+    void scrollIssuesCursorForLastRow() {
+        Organization first = new Organization();
+        first.setId(3);
+        first.setRating(4.5);
+        Organization last = new Organization();
+        last.setId(8);
+        last.setRating(4.5);
+        PageRequest pageable = PageRequest.of(5, 2, Sort.by(Sort.Direction.DESC, "rating"));
+        when(organizationRepository.findSlice(any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(first, last), PageRequest.of(0, 2), true));
+        OrganizationFilter noFilter = new OrganizationFilter(Optional.empty(), Optional.empty());
+
+        OrganizationScroll scroll = service.scroll(noFilter, pageable, null);
+
+        ArgumentCaptor<Pageable> request = ArgumentCaptor.forClass(Pageable.class);
+        verify(organizationRepository).findSlice(any(), request.capture());
+        assertThat(request.getValue().getOffset()).isZero();
+        assertThat(request.getValue().getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "rating").and(Sort.by(Sort.Direction.DESC, "id")));
+        assertThat(OrganizationCursor.decode(scroll.nextCursor()))
+                .isEqualTo(new OrganizationCursor(OrganizationSortField.RATING, Sort.Direction.DESC, 4.5, 8));
+
+        PageRequest otherSort = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "rating"));
+        assertThatThrownBy(() -> service.scroll(noFilter, otherSort, scroll.nextCursor()))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> service.scroll(noFilter, pageable, "not-a-cursor"))
+                .isInstanceOf(ValidationException.class);
     }
 
     @Test
@@ -121,11 +187,12 @@ class OrganizationServiceTest {
         form.setPostalStreet("Second");
         form.setPostalZipCode("2000");
 
+        when(serializableExecutor.execute(eq("organization.create"), any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(1).doInTransaction(null));
+        when(localNameLocks.tryAcquire("org_name_ПАО РОМАШКА")).thenReturn(() -> { });
         when(databaseLockService.tryAcquire(anyString())).thenReturn(true);
         when(organizationRepository.findByNameIgnoreCase("ПАО Ромашка"))
                 .thenReturn(Optional.empty());
-        when(organizationRepository.findNamesExcludingId(null))
-                .thenReturn(List.of());
         // mock saves to return entities with ids
         when(coordinatesRepository.save(any(Coordinates.class)))
                 .thenAnswer(inv -> {
@@ -157,9 +224,14 @@ class OrganizationServiceTest {
         verify(addressRepository, times(2)).save(any(Address.class));
         verify(organizationRepository, times(1)).save(any(Organization.class));
 
-        ArgumentCaptor<Integer> idCaptor = ArgumentCaptor.forClass(
-                Integer.class);
-        verify(eventPublisher).broadcast(eq("created"), idCaptor.capture());
-        assertThat(idCaptor.getValue()).isEqualTo(1);
+        ArgumentCaptor<OrganizationChange> changeCaptor = ArgumentCaptor.forClass(
+                OrganizationChange.class);
+        verify(dataVersion).bump();
+        verify(eventPublisher).broadcast(changeCaptor.capture());
+        assertThat(changeCaptor.getValue().type()).isEqualTo(OrganizationChange.CREATED);
+        assertThat(changeCaptor.getValue().id()).isEqualTo(1);
+        assertThat(changeCaptor.getValue().row().name()).isEqualTo("ПАО Ромашка");
+        verify(coordinatesProximityService).stage(10L, 1, 2f);
+        verify(turnoverLeaderboard).put(new TurnoverLeader(1, "ПАО Ромашка", 2_000_000f, 500L));
     }
 }
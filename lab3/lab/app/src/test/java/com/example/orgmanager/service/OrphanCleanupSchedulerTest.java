@@ -0,0 +1,142 @@
+package com.example.orgmanager.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.example.orgmanager.repository.AddressRepository;
+import com.example.orgmanager.repository.CoordinatesRepository;
+import com.example.orgmanager.repository.OrganizationRepository;
+import com.example.orgmanager.service.lock.DatabaseLockService;
+import com.example.orgmanager.service.spatial.CoordinatesProximityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanCleanupSchedulerTest {
+    private static final int BATCH_SIZE = 4;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+    @Mock
+    private AddressRepository addressRepository;
+    @Mock
+    private CoordinatesRepository coordinatesRepository;
+    @Mock
+    private DatabaseLockService databaseLockService;
+    @Mock
+    private CoordinatesProximityService coordinatesProximityService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ScheduledExecutorService worker;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrphanCleanupScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new OrphanCleanupScheduler(
+                new OrganizationRepositories(organizationRepository, addressRepository, coordinatesRepository),
+                databaseLockService,
+                coordinatesProximityService,
+                transactionManager,
+                worker,
+                meterRegistry,
+                new OrphanCleanupSettings(BATCH_SIZE, 1000L, 3_600_000L));
+    }
+
+    @Test
+    @DisplayName("candidates from several writes are deleted under a single lock acquisition")
+    void drainsBurstInOneBatch() {
+        when(databaseLockService.tryAcquire("orphan_cleanup")).thenReturn(true);
+        when(coordinatesRepository.findUnassignedIdsForUpdate(anyCollection())).thenReturn(List.of(7L));
+
+        scheduler.enqueue(new OrphanCandidates(Set.of(1L), Set.of(7L)));
+        scheduler.enqueue(new OrphanCandidates(Set.of(2L), Set.of()));
+        assertThat(meterRegistry.get("app.orphan-cleanup.queue").gauge().value()).isEqualTo(3d);
+
+        scheduler.drain();
+
+        verify(databaseLockService, times(1)).tryAcquire("orphan_cleanup");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> addresses = ArgumentCaptor.forClass(Collection.class);
+        verify(addressRepository).deleteUnassignedIn(addresses.capture());
+        assertThat(addresses.getValue()).containsExactlyInAnyOrder(1L, 2L);
+        verify(coordinatesRepository).deleteAllByIdInBatch(List.of(7L));
+        verify(coordinatesProximityService).stageRemoval(List.of(7L));
+        assertThat(scheduler.queueDepth()).isZero();
+    }
+
+    @Test
+    @DisplayName("candidates stay queued while another node holds the cleanup lock")
+    void keepsCandidatesWhenLockIsBusy() {
+        when(databaseLockService.tryAcquire("orphan_cleanup")).thenReturn(false);
+
+        scheduler.enqueue(new OrphanCandidates(Set.of(1L, 2L), Set.of(3L)));
+        scheduler.drain();
+
+        verify(addressRepository, never()).deleteUnassignedIn(anyCollection());
+        verify(coordinatesRepository, never()).findUnassignedIdsForUpdate(anyCollection());
+        assertThat(scheduler.queueDepth()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("a full batch triggers an early drain, scheduled only once")
+    void schedulesEarlyDrainAtBatchSize() {
+        scheduler.enqueue(new OrphanCandidates(Set.of(1L, 2L), Set.of()));
+        verify(worker, never()).execute(any(Runnable.class));
+
+        scheduler.enqueue(new OrphanCandidates(Set.of(3L), Set.of(4L)));
+        scheduler.enqueue(new OrphanCandidates(Set.of(5L), Set.of()));
+
+        verify(worker, times(1)).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("the full sweep deletes orphans that never reached the queue")
+    void sweepCatchesLostCandidates() {
+        when(databaseLockService.tryAcquire("orphan_cleanup")).thenReturn(true);
+        when(addressRepository.deleteUnassigned()).thenReturn(2);
+        when(coordinatesRepository.findUnassignedIds()).thenReturn(List.of(8L, 9L));
+        when(coordinatesRepository.findUnassignedIdsForUpdate(anyCollection())).thenReturn(List.of(8L, 9L));
+
+        scheduler.sweep();
+
+        assertThat(meterRegistry.get("app.orphan-cleanup.deleted").tag("kind", "address").counter().count())
+                .isEqualTo(2d);
+        verify(coordinatesRepository).deleteAllByIdInBatch(List.of(8L, 9L));
+        verify(coordinatesProximityService).stageRemoval(List.of(8L, 9L));
+        assertThat(scheduler.queueDepth()).isZero();
+    }
+
+    @Test
+    @DisplayName("large queues are split into batches of the configured size")
+    void splitsIntoBatches() {
+        when(databaseLockService.tryAcquire("orphan_cleanup")).thenReturn(true);
+
+        scheduler.enqueue(new OrphanCandidates(Set.of(1L, 2L, 3L, 4L, 5L, 6L), Set.of()));
+        scheduler.drain();
+
+        verify(addressRepository, times(2)).deleteUnassignedIn(anyCollection());
+        verify(databaseLockService, times(2)).tryAcquire(eq("orphan_cleanup"));
+        assertThat(scheduler.queueDepth()).isZero();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.orgmanager.service.analytics;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsResultCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AnalyticsResultCache cache = new AnalyticsResultCache(meterRegistry, 2, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("a result is reused only for the same query, arguments and data version")
+    void keyedByQueryArgumentsAndVersion() {
+        assertThat(cache.<Long>lookup("count", List.of(4.0), 1)).isNull();
+        cache.put("count", List.of(4.0), 1, 7L);
+
+        assertThat(cache.<Long>lookup("count", List.of(4.0), 1)).isEqualTo(7L);
+        assertThat(cache.<Long>lookup("count", List.of(5.0), 1)).isNull();
+        assertThat(cache.<Long>lookup("other", List.of(4.0), 1)).isNull();
+        assertThat(cache.hitRatio()).isEqualTo(0.25);
+    }
+
+    @Test
+    @DisplayName("a newer data version drops every entry and refuses older results")
+    void invalidatedByDataVersion() {
+        cache.lookup("count", List.of(4.0), 1);
+        cache.put("count", List.of(4.0), 1, 7L);
+        assertThat(cache.estimatedBytes()).isPositive();
+
+        assertThat(cache.<Long>lookup("count", List.of(4.0), 2)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.estimatedBytes()).isZero();
+
+        // loaded before the change was committed
+        cache.put("count", List.of(4.0), 1, 7L);
+        assertThat(cache.<Long>lookup("count", List.of(4.0), 2)).isNull();
+    }
+
+    @Test
+    @DisplayName("the least recently used entry is evicted once the cache is full")
+    void evictsLeastRecentlyUsed() {
+        cache.lookup("count", List.of(1.0), 1);
+        cache.put("count", List.of(1.0), 1, 1L);
+        cache.put("count", List.of(2.0), 1, 2L);
+        cache.lookup("count", List.of(1.0), 1);
+        cache.put("count", List.of(3.0), 1, 3L);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.<Long>lookup("count", List.of(1.0), 1)).isEqualTo(1L);
+        assertThat(cache.<Long>lookup("count", List.of(2.0), 1)).isNull();
+        assertThat(meterRegistry.get("app.analytics.cache.size").gauge().value()).isEqualTo(2d);
+    }
+
+    @Test
+    @DisplayName("an entry older than the TTL is loaded again")
+    void expiresAfterTtl() {
+        AnalyticsResultCache shortLived = new AnalyticsResultCache(new SimpleMeterRegistry(), 2, Duration.ZERO);
+        shortLived.lookup("count", List.of(4.0), 1);
+        shortLived.put("count", List.of(4.0), 1, 7L);
+
+        assertThat(shortLived.<Long>lookup("count", List.of(4.0), 1)).isNull();
+        assertThat(shortLived.size()).isZero();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.orgmanager.service.analytics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.example.orgmanager.service.FullNamePage;
+import com.example.orgmanager.service.OrganizationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceTest {
+    private static final FullNamePage EMPTY = new FullNamePage(List.of(), null);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrganizationService organizationService = mock(OrganizationService.class);
+    private final AnalyticsService service = new AnalyticsService(
+            organizationService,
+            new AnalyticsResultCache(meterRegistry, 10, Duration.ofMinutes(1)),
+            mock(PlatformTransactionManager.class),
+            meterRegistry,
+            4,
+            Duration.ofMillis(300));
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("database panels run at the same time")
+    void runsPanelsConcurrently() {
+        CountDownLatch started = new CountDownLatch(3);
+        when(organizationService.countByRatingEquals(4.0)).thenAnswer(inv -> meet(started, 7L));
+        when(organizationService.fullNameStartsWith("A", null)).thenAnswer(inv -> meet(started, EMPTY));
+        when(organizationService.fullNameGreaterThan("B", null)).thenAnswer(inv -> meet(started, EMPTY));
+        when(organizationService.averageEmployeesTop10ByTurnover()).thenReturn(12.5);
+
+        AnalyticsDashboard dashboard = service.load(new AnalyticsQuery(4.0, "A", null, "B", null));
+
+        assertThat(dashboard.timedOut()).isEmpty();
+        assertThat(dashboard.ratingCount()).isEqualTo(7L);
+        assertThat(dashboard.startsWith()).isSameAs(EMPTY);
+        assertThat(dashboard.fullNameGreaterThan()).isSameAs(EMPTY);
+        assertThat(dashboard.averageEmployeesTop10()).isEqualTo(12.5);
+        assertThat(dashboard.timings()).containsOnlyKeys(
+                AnalyticsDashboard.RATING_COUNT,
+                AnalyticsDashboard.STARTS_WITH,
+                AnalyticsDashboard.FULL_NAME_GREATER_THAN,
+                AnalyticsDashboard.TOP5_BY_TURNOVER,
+                AnalyticsDashboard.AVERAGE_EMPLOYEES_TOP10);
+    }
+
+    @Test
+    @DisplayName("a panel that misses the deadline is left out of the page")
+    void returnsPartialResultsOnTimeout() {
+        when(organizationService.countByRatingEquals(4.0)).thenReturn(7L);
+        when(organizationService.fullNameGreaterThan("B", null)).thenAnswer(inv -> {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+            return EMPTY;
+        });
+
+        AnalyticsDashboard dashboard = service.load(new AnalyticsQuery(4.0, null, null, "B", null));
+
+        assertThat(dashboard.ratingCount()).isEqualTo(7L);
+        assertThat(dashboard.fullNameGreaterThan()).isNull();
+        assertThat(dashboard.timedOut()).containsExactly(AnalyticsDashboard.FULL_NAME_GREATER_THAN);
+        assertThat(meterRegistry.get("app.analytics.query")
+                .tag("panel", AnalyticsDashboard.FULL_NAME_GREATER_THAN)
+                .tag("outcome", "timeout")
+                .timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("a repeated query is served from the cache until the data changes")
+    void reusesResultsWithinDataVersion() {
+        when(organizationService.dataVersion()).thenReturn(1L, 1L, 2L);
+        when(organizationService.countByRatingEquals(4.0)).thenReturn(7L, 8L);
+        AnalyticsQuery query = new AnalyticsQuery(4.0, null, null, null, null);
+
+        assertThat(service.load(query).ratingCount()).isEqualTo(7L);
+        assertThat(service.load(query).ratingCount()).isEqualTo(7L);
+        assertThat(service.load(query).ratingCount()).isEqualTo(8L);
+
+        verify(organizationService, times(2)).countByRatingEquals(4.0);
+        assertThat(meterRegistry.get("app.analytics.query")
+                .tag("panel", AnalyticsDashboard.RATING_COUNT)
+                .tag("outcome", "cached")
+                .timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("a rejected input fails the page instead of hiding the panel")
+    void propagatesValidationErrors() {
+        when(organizationService.fullNameStartsWith("A", "bad"))
+                .thenThrow(new ValidationException("Некорректный курсор"));
+
+        assertThatThrownBy(() -> service.load(new AnalyticsQuery(null, "A", "bad", null, null)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Некорректный курсор");
+    }
+
+    private static <T> T meet(CountDownLatch started, T result) throws InterruptedException {
+        started.countDown();
+        // only completes if the other panels are running at the same time
+        if (!started.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("panels ran one after another");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.orgmanager.service.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.orgmanager.repository.OrganizationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TurnoverLeaderboardTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrganizationRepository organizationRepository = mock(OrganizationRepository.class);
+    /** What the table holds; the mocked query ranks it like the SQL does. */
+    private final List<TurnoverLeader> table = new ArrayList<>();
+    private final TurnoverLeaderboard leaderboard =
+            new TurnoverLeaderboard(organizationRepository, meterRegistry, TurnoverLeaderboard.GUARANTEED_DEPTH);
+
+    @BeforeEach
+    void mockQuery() {
+        when(organizationRepository.findTurnoverLeaders(any())).thenAnswer(inv -> {
+            Pageable limit = inv.getArgument(0);
+            return table.stream()
+                    .sorted(TurnoverLeader.RANKING)
+                    .limit(limit.getPageSize())
+                    .<OrganizationRepository.TurnoverProjection>map(Row::new)
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("committed writes are answered from memory")
+    void appliesWritesWithoutQuerying() {
+        for (int i = 1; i <= 12; i++) {
+            table.add(leader(i, i * 100f, i));
+        }
+        leaderboard.warmUp();
+
+        TurnoverLeader newcomer = leader(13, 5000f, 40);
+        table.add(newcomer);
+        leaderboard.put(newcomer);
+        table.set(11, leader(12, 1200f, 30));
+        leaderboard.put(leader(12, 1200f, 30));
+
+        assertThat(leaderboard.top(5)).extracting(TurnoverLeader::id).containsExactly(13, 12, 11, 10, 9);
+        // 40 + 30 + 11 + 10 + 9 + 8 + 7 + 6 + 5 + 4 = 130
+        assertThat(leaderboard.averageEmployees(10)).isEqualTo(13.0);
+        verify(organizationRepository, times(1)).findTurnoverLeaders(any());
+    }
+
+    @Test
+    @DisplayName("a ranking that lost rows below the guaranteed depth is reloaded")
+    void reloadsWhenDepleted() {
+        for (int i = 1; i <= 12; i++) {
+            table.add(leader(i, i * 100f, i));
+        }
+        leaderboard.warmUp();
+
+        table.removeIf(row -> row.id() == 12);
+        leaderboard.remove(12);
+
+        assertThat(leaderboard.top(10)).extracting(TurnoverLeader::id)
+                .containsExactly(11, 10, 9, 8, 7, 6, 5, 4, 3, 2);
+        verify(organizationRepository, times(2)).findTurnoverLeaders(any());
+    }
+
+    @Test
+    @DisplayName("a table that fits entirely accepts rows ranked last")
+    void smallTableIsExhaustive() {
+        table.add(leader(1, 300f, 3));
+        table.add(leader(2, 200f, 2));
+        leaderboard.warmUp();
+
+        table.add(leader(3, 100f, 1));
+        leaderboard.put(leader(3, 100f, 1));
+        leaderboard.remove(1);
+        table.removeIf(row -> row.id() == 1);
+
+        assertThat(leaderboard.top(5)).extracting(TurnoverLeader::id).containsExactly(2, 3);
+        assertThat(leaderboard.averageEmployees(10)).isEqualTo(1.5);
+        assertThat(leaderboard.verify()).isTrue();
+        verify(organizationRepository, times(2)).findTurnoverLeaders(any());
+    }
+
+    @Test
+    @DisplayName("the rebuild counts and repairs a missed write")
+    void rebuildRepairsDrift() {
+        table.add(leader(1, 300f, 3));
+        table.add(leader(2, 200f, 2));
+        leaderboard.warmUp();
+
+        table.set(1, leader(2, 900f, 2));
+        assertThat(leaderboard.verify()).isFalse();
+
+        leaderboard.rebuild();
+
+        assertThat(leaderboard.top(2)).extracting(TurnoverLeader::id).containsExactly(2, 1);
+        assertThat(leaderboard.verify()).isTrue();
+        assertThat(checks("drift")).isEqualTo(2d);
+        assertThat(checks("consistent")).isEqualTo(1d);
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("app.analytics.turnover-leaders.checks").tag("result", result).counter().count();
+    }
+
+    private static TurnoverLeader leader(int id, float turnover, long employees) {
+        return new TurnoverLeader(id, "N" + id, turnover, employees);
+    }
+
+    private record Row(TurnoverLeader leader) implements OrganizationRepository.TurnoverProjection {
+        @Override
+        public Integer getId() {
+            return leader.id();
+        }
+
+        @Override
+        public String getName() {
+            return leader.name();
+        }
+
+        @Override
+        public Float getAnnualTurnover() {
+            return leader.annualTurnover();
+        }
+
+        @Override
+        public Long getEmployeesCount() {
+            return leader.employeesCount();
+        }
+    }
+}
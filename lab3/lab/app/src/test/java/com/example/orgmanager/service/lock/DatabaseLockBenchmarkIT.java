@@ -0,0 +1,184 @@
+package com.example.orgmanager.service.lock;
+
+import com.example.orgmanager.repository.AppLockRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the app_lock table backend with advisory locks: acquisition cost
+ * for fresh names, acquisition cost on a few hot names under contention, and
+ * what is left behind in app_lock. Run with {@code ./gradlew :app:benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DatabaseLockBenchmarkIT {
+    private static final int DISTINCT_NAMES = 5000;
+    private static final int THREADS = 8;
+    private static final int ROUNDS_PER_THREAD = 200;
+    private static final int HOT_NAMES = 4;
+    private static final long HOLD_MILLIS = 1;
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseLockBenchmarkIT.class);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("orgmgr_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> String.valueOf(THREADS + 2));
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQL95Dialect");
+    }
+
+    @Autowired
+    private AppLockRepository appLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void advisoryLocksAreCheaperAndLeaveNoRows() throws Exception {
+        Result table = run(LockBackend.TABLE);
+        Result advisory = run(LockBackend.ADVISORY);
+
+        LOGGER.info("{}", table);
+        LOGGER.info("{}", advisory);
+
+        assertThat(table.rowsAdded()).isEqualTo(DISTINCT_NAMES + HOT_NAMES);
+        assertThat(advisory.rowsAdded()).isZero();
+        assertThat(table.contendedFailures()).isZero();
+        assertThat(advisory.contendedFailures()).isZero();
+    }
+
+    private Result run(LockBackend backend) throws Exception {
+        DatabaseLockService service = new DatabaseLockService(
+                appLockRepository, backend, Duration.ofSeconds(5));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long rowsBefore = appLockRows();
+        long bytesBefore = appLockBytes();
+
+        long distinctNanos = 0;
+        for (int i = 0; i < DISTINCT_NAMES; i++) {
+            String name = "org_name_" + backend + "_" + i;
+            distinctNanos += tx.execute(status -> {
+                long started = System.nanoTime();
+                assertThat(service.tryAcquire(name)).isTrue();
+                return System.nanoTime() - started;
+            });
+        }
+
+        AtomicLong contendedNanos = new AtomicLong();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < ROUNDS_PER_THREAD; round++) {
+                        String name = "org_name_hot_" + backend + "_" + ((thread + round) % HOT_NAMES);
+                        tx.executeWithoutResult(status -> {
+                            long started = System.nanoTime();
+                            boolean acquired = service.tryAcquire(name);
+                            contendedNanos.addAndGet(System.nanoTime() - started);
+                            if (!acquired) {
+                                failures.incrementAndGet();
+                                status.setRollbackOnly();
+                                return;
+                            }
+                            sleep(HOLD_MILLIS);
+                        });
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new Result(
+                backend,
+                distinctNanos / DISTINCT_NAMES,
+                contendedNanos.get() / (THREADS * ROUNDS_PER_THREAD),
+                failures.get(),
+                appLockRows() - rowsBefore,
+                appLockBytes() - bytesBefore);
+    }
+
+    private long appLockRows() {
+        return jdbcTemplate.queryForObject("select count(*) from app_lock", Long.class);
+    }
+
+    private long appLockBytes() {
+        return jdbcTemplate.queryForObject("select pg_total_relation_size('app_lock')", Long.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Result(
+            LockBackend backend,
+            long distinctNanos,
+            long contendedNanos,
+            int contendedFailures,
+            long rowsAdded,
+            long bytesAdded) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%-8s fresh name %.3fms, hot name %.3fms (%d failed), app_lock +%d rows / +%d KiB",
+                    backend,
+                    distinctNanos / 1e6,
+                    contendedNanos / 1e6,
+                    contendedFailures,
+                    rowsAdded,
+                    bytesAdded / 1024);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.orgmanager.service.lock;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalNameLocksTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalNameLocks locks = new LocalNameLocks(meterRegistry, Duration.ofMillis(50));
+
+    @Test
+    @DisplayName("a second node-local request for a held name gives up and is counted")
+    void rejectsWhileHeldAndReleasesOnClose() throws Exception {
+        LocalNameLocks.Held held = locks.tryAcquire("org_name_ROMASHKA");
+        assertThat(held).isNotNull();
+        LocalNameLocks.Held nested = locks.tryAcquire("org_name_ROMASHKA");
+        assertThat(nested).as("reentrant on the same thread").isNotNull();
+        nested.close();
+
+        assertThat(acquireOnOtherThread("org_name_ROMASHKA")).isFalse();
+        assertThat(meterRegistry.counter("app.lock.local.rejected").count()).isEqualTo(1d);
+
+        held.close();
+        assertThat(acquireOnOtherThread("org_name_ROMASHKA")).isTrue();
+    }
+
+    @Test
+    @DisplayName("other names are never blocked and released names are forgotten")
+    void locksOnlyTheSameName() throws Exception {
+        try (LocalNameLocks.Held held = locks.tryAcquire("org_name_ROMASHKA")) {
+            assertThat(held).isNotNull();
+            for (int i = 0; i < 100; i++) {
+                assertThat(acquireOnOtherThread("org_name_" + i)).isTrue();
+            }
+            assertThat(locks.size()).isEqualTo(1);
+        }
+        assertThat(locks.size()).isZero();
+    }
+
+    private boolean acquireOnOtherThread(String lockName) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            LocalNameLocks.Held held = locks.tryAcquire(lockName);
+            if (held == null) {
+                return false;
+            }
+            held.close();
+            return true;
+        }).get(5, TimeUnit.SECONDS);
+    }
+}
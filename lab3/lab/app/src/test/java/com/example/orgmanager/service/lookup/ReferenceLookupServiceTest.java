@@ -0,0 +1,88 @@
+package com.example.orgmanager.service.lookup;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.example.orgmanager.repository.AddressRepository;
+import com.example.orgmanager.repository.CoordinatesRepository;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceLookupServiceTest {
+    @Mock
+    private AddressRepository addressRepository;
+    @Mock
+    private CoordinatesRepository coordinatesRepository;
+
+    private ReferenceLookupService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReferenceLookupService(addressRepository, coordinatesRepository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("repeated prefixes are answered from the cache")
+    void cachesRepeatedPrefixes() {
+        AddressRepository.AddressOptionView view = new AddressRepository.AddressOptionView() {
+            @Override
+            public Long getId() {
+                return 4L;
+            }
+
+            @Override
+            public String getStreet() {
+                return "Lenina";
+            }
+
+            @Override
+            public String getZipCode() {
+                return null;
+            }
+        };
+        when(addressRepository.findByStreetStartingWithIgnoreCaseOrZipCodeStartingWith(eq("Le"), eq("Le"), any()))
+                .thenReturn(new SliceImpl<>(List.of(view), PageRequest.of(0, 1), true));
+
+        LookupPage<AddressOption> first = service.addresses(" Le ", 0, 1);
+        LookupPage<AddressOption> second = service.addresses("Le", 0, 1);
+
+        assertThat(first.items()).containsExactly(new AddressOption(4L, "Lenina", null));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second).isEqualTo(first);
+        verify(addressRepository, times(1))
+                .findByStreetStartingWithIgnoreCaseOrZipCodeStartingWith(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("page size is capped and open coordinate bounds span the whole axis")
+    void validatesPagingAndOpensMissingBounds() {
+        assertThatThrownBy(() -> service.addresses("a", 0, ReferenceLookupService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> service.coordinates(null, null, null, null, -1, 10))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(addressRepository, coordinatesRepository);
+
+        when(coordinatesRepository.findByXBetweenAndYBetween(
+                eq(3), eq(Integer.MAX_VALUE), eq(-Float.MAX_VALUE), eq(7f), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        assertThat(service.coordinates(3, null, null, 7f, 0, 10).items()).isEmpty();
+    }
+}
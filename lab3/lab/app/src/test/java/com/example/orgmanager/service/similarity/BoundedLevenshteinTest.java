@@ -0,0 +1,70 @@
+package com.example.orgmanager.service.similarity;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedLevenshteinTest {
+    private static final String ALPHABET = "ОПАИТР ";
+
+    private final Random random = new Random(7);
+
+    @Test
+    @DisplayName("bounded distance agrees with the full matrix for short and long patterns")
+    void agreesWithFullMatrix() {
+        for (int i = 0; i < 20_000; i++) {
+            int length = random.nextInt(i % 3 == 0 ? 140 : 70);
+            String pattern = randomString(length);
+            String text = random.nextBoolean()
+                    ? mutate(pattern)
+                    : randomString(Math.max(0, length + random.nextInt(9) - 4));
+            int limit = random.nextInt(5);
+
+            int expected = Levenshtein.distance(pattern, text);
+            BoundedLevenshtein kernel = BoundedLevenshtein.compile(pattern);
+
+            assertThat(kernel.distance(text, limit))
+                    .as("'%s' vs '%s' limited to %d", pattern, text, limit)
+                    .isEqualTo(Math.min(expected, limit + 1));
+            assertThat(kernel.distance(text, Integer.MAX_VALUE - 1)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("length difference alone rejects distant names")
+    void rejectsByLength() {
+        BoundedLevenshtein kernel = BoundedLevenshtein.compile("ООО РОМАШКА");
+
+        assertThat(kernel.distance("ООО РОМАШКА ХОЛДИНГ", 2)).isEqualTo(3);
+        assertThat(kernel.distance("ООО РОМАШКИ", 2)).isEqualTo(1);
+        assertThat(kernel.isWithin("ПАО РОМАШКА", 2)).isTrue();
+    }
+
+    private String randomString(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private String mutate(String value) {
+        StringBuilder sb = new StringBuilder(value);
+        int edits = random.nextInt(5);
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(sb.length() + 1);
+            char letter = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            if (position == sb.length() || random.nextBoolean()) {
+                sb.insert(position, letter);
+            } else if (random.nextBoolean()) {
+                sb.deleteCharAt(position);
+            } else {
+                sb.setCharAt(position, letter);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.orgmanager.service.similarity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+
+import com.example.orgmanager.repository.OrganizationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NameSimilarityServiceTest {
+    private static final String[] PREFIXES = {"ООО ", "ПАО ", "ТР ", "ИП "};
+    private static final String ALPHABET = "АБВГДЕЖЗИКЛМНОПРСТУФХЦЧШЭЮЯ ";
+    private static final int EXISTING = 1500;
+    private static final int QUERIES = 3000;
+    private static final int THRESHOLD = 3;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Random random = new Random(42);
+    private List<Row> rows;
+    private NameSimilarityService service;
+
+    @BeforeEach
+    void setUp() {
+        rows = new ArrayList<>();
+        for (int id = 1; id <= EXISTING; id++) {
+            String name = randomName();
+            rows.add(new Row(id, name, name + " " + randomWord(8)));
+        }
+        when(organizationRepository.findNamesExcludingId(null))
+                .thenReturn(new ArrayList<>(rows));
+        // the table is what other nodes see; the tests change it behind the index's back
+        lenient().when(organizationRepository.findNamesById(any())).thenAnswer(invocation ->
+                rows.stream().filter(row -> row.getId().equals(invocation.getArgument(0))).findFirst()
+                        .map(OrganizationRepository.NameProjection.class::cast));
+        lenient().when(organizationRepository.findSimilarNameWithin(anyString(), anyInt(), any(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> firstWithin(
+                        invocation.getArgument(0),
+                        invocation.getArgument(1),
+                        invocation.getArgument(2),
+                        invocation.getArgument(3),
+                        invocation.getArgument(4)));
+        service = new NameSimilarityService(
+                organizationRepository, NameSimilarityStrategy.INDEX, transactionManager);
+        service.warmUp();
+    }
+
+    @Test
+    @DisplayName("index gives the same verdict as the brute-force scan")
+    void matchesBruteForce() {
+        for (int i = 0; i < QUERIES; i++) {
+            Row source = rows.get(random.nextInt(rows.size()));
+            String name = random.nextBoolean()
+                    ? mutate(source.getName(), random.nextInt(5))
+                    : randomName();
+            String fullName = mutate(source.getFullName(), 2 + random.nextInt(3));
+            Integer excludeId = random.nextInt(4) == 0 ? source.getId() : null;
+
+            boolean expected = bruteForceSimilar(name, fullName, excludeId);
+            var actual = service.findSimilar(name, fullName, excludeId);
+
+            assertThat(actual.isPresent())
+                    .as("verdict for '%s' / '%s' excluding %s", name, fullName, excludeId)
+                    .isEqualTo(expected);
+            actual.ifPresent(similar -> assertThat(similar.distance()).isLessThan(THRESHOLD));
+        }
+    }
+
+    @Test
+    @DisplayName("staged changes outside a transaction are applied immediately")
+    void stageAndRemove() {
+        String name = "ООО ЯЯЯЯЯЯЯЯЯЯ";
+        assertThat(service.findSimilar(name, null, null)).isEmpty();
+
+        rows.add(new Row(EXISTING + 1, name, null));
+        service.stage(EXISTING + 1, name, null);
+        assertThat(service.findSimilar("ООО ЯЯЯЯЯЯЯЯЯЮ", null, null))
+                .hasValueSatisfying(similar -> {
+                    assertThat(similar.existing()).isEqualTo(name);
+                    assertThat(similar.distance()).isEqualTo(1);
+                });
+        assertThat(service.findSimilar(name, null, EXISTING + 1)).isEmpty();
+
+        rows.set(rows.size() - 1, new Row(EXISTING + 1, "ООО ЖЖЖЖЖЖЖЖЖЖ", null));
+        service.stage(EXISTING + 1, "ООО ЖЖЖЖЖЖЖЖЖЖ", null);
+        assertThat(service.findSimilar(name, null, null)).isEmpty();
+
+        rows.remove(rows.size() - 1);
+        service.stageRemoval(EXISTING + 1);
+        assertThat(service.findSimilar("ООО ЖЖЖЖЖЖЖЖЖЖ", null, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a name committed on another node is found in the table")
+    void findsRowsMissingFromIndex() {
+        rows.add(new Row(EXISTING + 1, "ООО ЯЯЯЯЯЯЯЯЯЯ", null));
+
+        assertThat(service.findSimilar("ООО ЯЯЯЯЯЯЯЯЯЮ", null, null))
+                .hasValueSatisfying(similar -> assertThat(similar.existing()).isEqualTo("ООО ЯЯЯЯЯЯЯЯЯЯ"));
+        assertThat(service.findSimilar("ООО ЯЯЯЯЯЯЯЯЯЮ", null, EXISTING + 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("an index entry whose row is gone does not reject")
+    void ignoresStaleIndexEntries() {
+        rows.add(new Row(EXISTING + 1, "ООО ЯЯЯЯЯЯЯЯЯЯ", null));
+        service.stage(EXISTING + 1, "ООО ЯЯЯЯЯЯЯЯЯЯ", null);
+        rows.remove(rows.size() - 1);
+
+        assertThat(service.findSimilar("ООО ЯЯЯЯЯЯЯЯЯЮ", null, null)).isEmpty();
+    }
+
+    /** What the recheck query returns: the first row in the length band within the distance. */
+    @Test
+    @DisplayName("the database strategy refuses to start without its extensions")
+    void databaseStrategyRequiresExtensions() {
+        NameSimilarityService database = new NameSimilarityService(
+                organizationRepository, NameSimilarityStrategy.DATABASE, transactionManager);
+
+        when(organizationRepository.findInstalledExtensions(List.of("pg_trgm", "fuzzystrmatch")))
+                .thenReturn(List.of("pg_trgm"));
+        assertThatThrownBy(database::warmUp)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("fuzzystrmatch")
+                .hasMessageNotContaining("pg_trgm");
+
+        when(organizationRepository.findInstalledExtensions(List.of("pg_trgm", "fuzzystrmatch")))
+                .thenReturn(List.of("fuzzystrmatch", "pg_trgm"));
+        database.warmUp();
+        assertThat(database.size()).isZero();
+    }
+
+    private Optional<OrganizationRepository.SimilarNameProjection> firstWithin(
+            String candidate, int maxDistance, Integer excludeId, int minLength, int maxLength) {
+        for (Row row : rows) {
+            if (row.getId().equals(excludeId)) {
+                continue;
+            }
+            for (String value : new String[] {row.getName(), row.getFullName()}) {
+                if (value == null) {
+                    continue;
+                }
+                String normalized = value.strip().toUpperCase(Locale.ROOT);
+                if (normalized.length() < minLength || normalized.length() > maxLength) {
+                    continue;
+                }
+                int distance = Levenshtein.distance(normalized, candidate);
+                if (distance <= maxDistance) {
+                    return Optional.of(new Match(value, distance));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean bruteForceSimilar(String name, String fullName, Integer excludeId) {
+        List<String> candidates = normalize(name, fullName);
+        for (Row row : rows) {
+            if (row.getId().equals(excludeId)) {
+                continue;
+            }
+            for (String existing : normalize(row.getName(), row.getFullName())) {
+                for (String candidate : candidates) {
+                    if (Levenshtein.distance(candidate, existing) < THRESHOLD) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<String> normalize(String... values) {
+        List<String> result = new ArrayList<>();
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                result.add(value.strip().toUpperCase(Locale.ROOT));
+            }
+        }
+        return result;
+    }
+
+    private String randomName() {
+        return PREFIXES[random.nextInt(PREFIXES.length)] + randomWord(4 + random.nextInt(10));
+    }
+
+    private String randomWord(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length() - 1)));
+        }
+        return sb.toString();
+    }
+
+    private String mutate(String value, int edits) {
+        StringBuilder sb = new StringBuilder(value);
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(sb.length() + 1);
+            char letter = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            switch (random.nextInt(3)) {
+                case 0 -> sb.insert(position, letter);
+                case 1 -> {
+                    if (position < sb.length()) {
+                        sb.deleteCharAt(position);
+                    }
+                }
+                default -> {
+                    if (position < sb.length()) {
+                        sb.setCharAt(position, letter);
+                    }
+                }
+            }
+        }
+        return random.nextBoolean() ? sb.toString().toLowerCase(Locale.ROOT) : sb.toString();
+    }
+
+    private record Match(String getExisting, Integer getDistance)
+            implements OrganizationRepository.SimilarNameProjection {
+    }
+
+    private record Row(Integer getId, String getName, String getFullName)
+            implements OrganizationRepository.NameProjection {
+    }
+}
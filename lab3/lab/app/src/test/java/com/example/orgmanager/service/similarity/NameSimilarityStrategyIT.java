@@ -0,0 +1,187 @@
+package com.example.orgmanager.service.similarity;
+
+import com.example.orgmanager.repository.OrganizationRepository;
+import com.example.orgmanager.service.similarity.NameSimilarityService.SimilarName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the trigram-prefiltered DATABASE strategy and the BK-tree INDEX
+ * strategy against the same table and expects the same verdicts, including
+ * names too short for the trigram bound to prune anything. The INDEX
+ * strategy is also run without its tree, which leaves every name to the
+ * recheck in the database.
+ */
+@Testcontainers
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class NameSimilarityStrategyIT {
+    private static final String[] PREFIXES = {"ООО ", "ПАО ", "ИП ", ""};
+    private static final String ALPHABET = "АБВГДЕЖЗИКЛМНОПРСТУФ";
+    private static final int ROWS = 2_000;
+    private static final int QUERIES = 2_000;
+    private static final int THRESHOLD = 3;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("orgmgr_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQL95Dialect");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:db/name-similarity.sql,classpath:db/organization-filters.sql,"
+                        + "classpath:db/name-length-index.sql,classpath:db/name-distance.sql");
+        registry.add("app.name-similarity.strategy", () -> "DATABASE");
+    }
+
+    @Autowired
+    private NameSimilarityService databaseStrategy;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(5);
+    private final List<String[]> names = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from organization");
+        jdbcTemplate.update("delete from address");
+        jdbcTemplate.update("delete from coordinates");
+        jdbcTemplate.update("insert into coordinates (id, x, y) "
+                + "select i, i, i from generate_series(1, ?) as s(i)", ROWS);
+        jdbcTemplate.update("insert into address (id, street, zip_code) "
+                + "select i, 'ул. ' || i, null from generate_series(1, ?) as s(i)", ROWS);
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= ROWS; id++) {
+            String name = randomName();
+            String fullName = random.nextInt(4) == 0
+                    ? null
+                    : "Общество " + randomWord(3 + random.nextInt(12));
+            names.add(new String[] {name, fullName});
+            rows.add(new Object[] {id, name, fullName, id, id, id});
+        }
+        jdbcTemplate.batchUpdate("insert into organization (id, name, full_name, coordinates_id, "
+                + "official_address_id, postal_address_id, annual_turnover, employees_count, rating, type) "
+                + "values (?, ?, ?, ?, ?, ?, 100000, 10, 1.0, 'COMMERCIAL')", rows);
+        jdbcTemplate.execute("analyze organization");
+    }
+
+    @Test
+    void strategiesAgreeOnTheSameRows() {
+        NameSimilarityService indexStrategy = new NameSimilarityService(
+                organizationRepository, NameSimilarityStrategy.INDEX, transactionManager);
+        indexStrategy.warmUp();
+        assertThat(indexStrategy.size()).isPositive();
+
+        int similar = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            Query query = nextQuery();
+
+            Optional<SimilarName> expected = query.run(databaseStrategy);
+            Optional<SimilarName> actual = query.run(indexStrategy);
+
+            assertThat(actual.map(SimilarName::distance))
+                    .as(query.toString())
+                    .isEqualTo(expected.map(SimilarName::distance));
+            similar += expected.isPresent() ? 1 : 0;
+        }
+        assertThat(similar).as("both verdicts are exercised").isBetween(QUERIES / 10, QUERIES * 9 / 10);
+    }
+
+    /** The recheck stops at the first match, so only the verdict has to agree, not the distance. */
+    @Test
+    void tableRecheckAgreesWithDatabaseStrategy() {
+        NameSimilarityService recheckOnly = new NameSimilarityService(
+                organizationRepository, NameSimilarityStrategy.INDEX, transactionManager);
+
+        for (int i = 0; i < QUERIES; i++) {
+            Query query = nextQuery();
+
+            Optional<SimilarName> expected = query.run(databaseStrategy);
+            Optional<SimilarName> actual = query.run(recheckOnly);
+
+            assertThat(actual.isPresent()).as(query.toString()).isEqualTo(expected.isPresent());
+            actual.ifPresent(match -> assertThat(match.distance()).as(query.toString()).isLessThan(THRESHOLD));
+        }
+    }
+
+    private Query nextQuery() {
+        int sourceId = 1 + random.nextInt(ROWS);
+        String[] source = names.get(sourceId - 1);
+        String name = random.nextBoolean() ? mutate(source[0], random.nextInt(4)) : randomName();
+        String fullName = source[1] == null || random.nextBoolean()
+                ? null
+                : mutate(source[1], random.nextInt(4));
+        Integer excludeId = random.nextInt(4) == 0 ? sourceId : null;
+        return new Query(name, fullName, excludeId);
+    }
+
+    private record Query(String name, String fullName, Integer excludeId) {
+        Optional<SimilarName> run(NameSimilarityService service) {
+            return service.findSimilar(name, fullName, excludeId);
+        }
+    }
+
+    private String randomName() {
+        return PREFIXES[random.nextInt(PREFIXES.length)] + randomWord(1 + random.nextInt(12));
+    }
+
+    private String randomWord(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private String mutate(String value, int edits) {
+        StringBuilder sb = new StringBuilder(value);
+        for (int i = 0; i < edits && sb.length() > 1; i++) {
+            int position = 1 + random.nextInt(sb.length() - 1);
+            char letter = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            switch (random.nextInt(3)) {
+                case 0 -> sb.insert(position, letter);
+                case 1 -> sb.deleteCharAt(position);
+                default -> sb.setCharAt(position, letter);
+            }
+        }
+        return random.nextBoolean() ? sb.toString().toLowerCase(Locale.ROOT) : sb.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.orgmanager.service.similarity;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramsTest {
+    private static final String ALPHABET = "ОПАИТРСКН -.";
+    private static final int MAX_EDITS = 2;
+
+    private final Random random = new Random(11);
+
+    @Test
+    @DisplayName("names within the edit limit never fall below the similarity bound")
+    void boundHoldsWithinEditLimit() {
+        for (int i = 0; i < 50_000; i++) {
+            String value = randomString(1 + random.nextInt(40));
+            String other = mutate(value, random.nextInt(MAX_EDITS + 1));
+            int distance = Levenshtein.distance(value, other);
+            if (distance > MAX_EDITS) {
+                continue;
+            }
+
+            double bound = Trigrams.similarityLowerBound(value, MAX_EDITS);
+
+            assertThat(similarity(value, other))
+                    .as("'%s' vs '%s' at distance %d", value, other, distance)
+                    .isGreaterThanOrEqualTo(bound);
+        }
+    }
+
+    @Test
+    @DisplayName("trigrams are split per word and ignore case")
+    void splitsLikePgTrgm() {
+        assertThat(Trigrams.of("Ab-c")).containsExactlyInAnyOrder("  a", " ab", "ab ", "  c", " c ");
+        assertThat(Trigrams.distinctCount("ООО РОМАШКА")).isEqualTo(Trigrams.distinctCount("ооо ромашка"));
+        assertThat(Trigrams.similarityLowerBound("ООО", MAX_EDITS)).isZero();
+    }
+
+    /** pg_trgm {@code similarity()}: shared trigrams over all distinct trigrams of both strings. */
+    private static double similarity(String left, String right) {
+        Set<String> leftTrigrams = Trigrams.of(left);
+        Set<String> rightTrigrams = Trigrams.of(right);
+        Set<String> union = new HashSet<>(leftTrigrams);
+        union.addAll(rightTrigrams);
+        if (union.isEmpty()) {
+            return 0d;
+        }
+        Set<String> shared = new HashSet<>(leftTrigrams);
+        shared.retainAll(rightTrigrams);
+        return (double) shared.size() / union.size();
+    }
+
+    private String randomString(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return random.nextBoolean() ? sb.toString().toLowerCase(Locale.ROOT) : sb.toString();
+    }
+
+    private String mutate(String value, int edits) {
+        StringBuilder sb = new StringBuilder(value);
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(sb.length() + 1);
+            char letter = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            switch (random.nextInt(3)) {
+                case 0 -> sb.insert(position, letter);
+                case 1 -> {
+                    if (position < sb.length()) {
+                        sb.deleteCharAt(position);
+                    }
+                }
+                default -> {
+                    if (position < sb.length()) {
+                        sb.setCharAt(position, letter);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
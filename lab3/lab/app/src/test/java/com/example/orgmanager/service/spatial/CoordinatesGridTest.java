@@ -0,0 +1,69 @@
+package com.example.orgmanager.service.spatial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CoordinatesGridTest {
+    private static final int POINTS = 3000;
+    private static final int QUERIES = 2000;
+
+    private final Random random = new Random(5);
+    private final Map<Long, CoordinatesGrid.Point> points = new HashMap<>();
+    private CoordinatesGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new CoordinatesGrid(1d);
+        for (long id = 1; id <= POINTS; id++) {
+            put(id, random.nextInt(200) - 523, random.nextInt(4000) / 10f - 100);
+        }
+        for (long id = 1; id <= POINTS / 3; id++) {
+            if (random.nextBoolean()) {
+                grid.remove(id);
+                points.remove(id);
+            } else {
+                put(id, random.nextInt(200) - 523, random.nextInt(4000) / 10f - 100);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("nearest points agree with a sorted full scan, also far outside the populated area")
+    void nearestMatchesFullScan() {
+        for (int i = 0; i < QUERIES; i++) {
+            boolean far = i % 10 == 0;
+            int x = far ? random.nextInt(20_000) - 10_000 : random.nextInt(210) - 528;
+            double y = far ? random.nextInt(20_000) - 10_000 : random.nextInt(4100) / 10f - 105;
+            int limit = 1 + random.nextInt(20);
+
+            List<Double> expected = new ArrayList<>();
+            points.values().stream()
+                    .map(point -> Math.sqrt(point.squaredDistance(x, y)))
+                    .sorted(Comparator.naturalOrder())
+                    .limit(limit)
+                    .forEach(expected::add);
+            List<CoordinatesGrid.Neighbour> actual = grid.nearest(x, y, limit, id -> true);
+
+            assertThat(actual).hasSize(expected.size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertThat(actual.get(j).distance()).isCloseTo(expected.get(j), within(1e-9));
+            }
+        }
+    }
+
+    private void put(long id, int x, float y) {
+        grid.put(id, x, y);
+        points.put(id, new CoordinatesGrid.Point(id, x, y));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.orgmanager.service.tx;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+class SerializableTransactionExecutorTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("serialization failures re-run the whole unit until it succeeds")
+    void retriesUntilSuccess() {
+        SerializableTransactionExecutor executor = executor(5);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.execute("test", status -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("could not serialize access");
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.get("app.tx.attempts").tag("outcome", "success").summary().totalAmount())
+                .isEqualTo(3d);
+        assertThat(meterRegistry.get("app.tx.retries").counter().count()).isEqualTo(2d);
+    }
+
+    @Test
+    @DisplayName("attempts are bounded and other failures are not retried")
+    void boundedAndSelective() {
+        SerializableTransactionExecutor executor = executor(2);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute("test", status -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("could not serialize access");
+        })).isInstanceOf(CannotAcquireLockException.class);
+        assertThat(calls).hasValue(2);
+
+        calls.set(0);
+        assertThatThrownBy(() -> executor.execute("test", status -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("broken");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    private SerializableTransactionExecutor executor(int maxAttempts) {
+        return new SerializableTransactionExecutor(
+                transactionManager,
+                meterRegistry,
+                maxAttempts,
+                Duration.ZERO,
+                Duration.ZERO,
+                0.5);
+    }
+}
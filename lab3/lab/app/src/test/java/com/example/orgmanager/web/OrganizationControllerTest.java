@@ -4,29 +4,44 @@ import java.util.List;
 
 import com.example.orgmanager.model.Organization;
 import com.example.orgmanager.service.OrganizationFilter;
+import com.example.orgmanager.service.OrganizationScroll;
 import com.example.orgmanager.service.OrganizationService;
+import com.example.orgmanager.service.lookup.ReferenceLookupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
-@WebMvcTest(controllers = OrganizationController.class)
+// a TTL this long keeps the fragments and the tag window from turning over mid-test
+@WebMvcTest(controllers = OrganizationController.class, properties = "app.table-cache.ttl=365d")
+@Import({OrganizationTableCache.class, SimpleMeterRegistry.class})
 class OrganizationControllerTest {
 
     @Autowired
@@ -35,6 +50,9 @@ class OrganizationControllerTest {
     @MockitoBean
     private OrganizationService service;
 
+    @MockitoBean
+    private ReferenceLookupService lookupService;
+
     @Test
     @DisplayName("GET / redirects to /organizations")
     void rootRedirect() throws Exception {
@@ -66,18 +84,61 @@ class OrganizationControllerTest {
     }
 
     @Test
-    @DisplayName("GET /organizations/new renders create form with lookups")
-    void createForm() throws Exception {
-        given(service.allCoordinates()).willReturn(List.of());
-        given(service.allAddresses()).willReturn(List.of());
+    @DisplayName("GET /organizations/table?mode=keyset scrolls from the cursor without counting")
+    void tableKeysetMode() throws Exception {
+        given(service.scroll(any(OrganizationFilter.class), any(PageRequest.class), eq("abc")))
+                .willReturn(new OrganizationScroll(new SliceImpl<>(List.of()), "def"));
+
+        mockMvc.perform(get("/organizations/table")
+                        .param("mode", "keyset")
+                        .param("cursor", "abc")
+                        .param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andExpect(content().string(containsString("cursor=def")));
+
+        verify(service, never()).list(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /organizations/table answers 304 or a cached render until the data version moves")
+    void tableRevalidatesAgainstDataVersion() throws Exception {
+        given(service.list(any(OrganizationFilter.class), any(PageRequest.class)))
+                .willReturn(new PageImpl<>(List.of()));
+        given(service.dataVersion()).willReturn(41L);
 
+        String etag = mockMvc.perform(get("/organizations/table").param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).matches("W/\"\\p{XDigit}+-\\p{XDigit}+-\\p{XDigit}{32}\"");
+
+        mockMvc.perform(get("/organizations/table").param("sort", "name")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/organizations/table").param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/organizations/table").param("sort", "rating")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        given(service.dataVersion()).willReturn(42L);
+        mockMvc.perform(get("/organizations/table").param("sort", "name")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        verify(service, times(3)).list(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /organizations/new renders create form without listing addresses or coordinates")
+    void createForm() throws Exception {
         mockMvc.perform(get("/organizations/new"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("organizations/create"))
-                .andExpect(model().attributeExists(
-                        "form",
-                        "coords",
-                        "addresses",
-                        "types"));
+                .andExpect(model().attributeExists("form", "types"))
+                .andExpect(model().attributeDoesNotExist("coords", "addresses"))
+                .andExpect(content().string(containsString("data-lookup=\"addresses\"")));
     }
 }
@@ -0,0 +1,107 @@
+package com.example.orgmanager.web;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrganizationTableCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrganizationTableCache cache = new OrganizationTableCache(meterRegistry, 2, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("identical concurrent misses share one render")
+    void coalescesConcurrentMisses() throws Exception {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> cache.get(1L, "q", () -> {
+                renders.incrementAndGet();
+                rendering.countDown();
+                await(release);
+                return "<table/>";
+            }));
+            assertThat(rendering.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> follower = executor.submit(() -> cache.get(1L, "q", () -> {
+                renders.incrementAndGet();
+                return "other";
+            }));
+            while (requests("coalesced") == 0d) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("<table/>");
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("<table/>");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(renders).hasValue(1);
+        assertThat(requests("miss")).isEqualTo(1d);
+    }
+
+    @Test
+    @DisplayName("a new data version drops every cached fragment")
+    void newVersionInvalidates() {
+        assertThat(cache.get(1L, "q", () -> "v1")).isEqualTo("v1");
+        assertThat(cache.get(1L, "q", () -> "unused")).isEqualTo("v1");
+        assertThat(cache.get(2L, "q", () -> "v2")).isEqualTo("v2");
+        // a late request still holding the old version neither reads nor clears the new generation
+        assertThat(cache.get(1L, "q", () -> "stale")).isEqualTo("stale");
+        assertThat(cache.get(2L, "q", () -> "unused")).isEqualTo("v2");
+
+        assertThat(requests("hit")).isEqualTo(2d);
+        assertThat(meterRegistry.get("app.table-cache.hit-ratio").gauge().value()).isEqualTo(2d / 5d);
+    }
+
+    @Test
+    @DisplayName("the least recently used fragment is evicted and failures are not cached")
+    void boundedAndFailuresNotCached() {
+        cache.get(1L, "a", () -> "A");
+        cache.get(1L, "b", () -> "B");
+        cache.get(1L, "a", () -> "unused");
+        cache.get(1L, "c", () -> "C");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1L, "b", () -> "B again")).isEqualTo("B again");
+
+        assertThatThrownBy(() -> cache.get(1L, "d", () -> {
+            throw new ValidationException("bad");
+        })).isInstanceOf(ValidationException.class);
+        assertThat(cache.get(1L, "d", () -> "D")).isEqualTo("D");
+    }
+
+    @Test
+    @DisplayName("a fragment older than the TTL is rendered again within the same version")
+    void expiresAfterTtl() {
+        OrganizationTableCache shortLived = new OrganizationTableCache(new SimpleMeterRegistry(), 2, Duration.ZERO);
+        assertThat(shortLived.get(1L, "q", () -> "v1")).isEqualTo("v1");
+
+        assertThat(shortLived.get(1L, "q", () -> "written elsewhere")).isEqualTo("written elsewhere");
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("app.table-cache.requests").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -11,6 +11,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
@@ -31,9 +33,20 @@ import java.util.Date;
 
 @Entity
 @Table(name = "organization")
+@NamedEntityGraph(
+        name = Organization.LISTING_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("coordinates"),
+                @NamedAttributeNode("officialAddress"),
+                @NamedAttributeNode("postalAddress")
+        }
+)
 @Getter
 @Setter
 public class Organization {
+    /** Loads a row together with everything the organization table shows, in one join. */
+    public static final String LISTING_GRAPH = "Organization.listing";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(updatable = false, nullable = false)
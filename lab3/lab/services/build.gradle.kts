@@ -1,5 +1,6 @@
 plugins {
     `java-library`
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
@@ -9,6 +10,13 @@ dependencies {
     api("org.springframework.boot:spring-boot-starter-web")
 
     implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-yaml")
+    implementation("io.micrometer:micrometer-core")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
 }
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+}
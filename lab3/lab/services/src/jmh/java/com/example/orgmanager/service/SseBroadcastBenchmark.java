@@ -0,0 +1,115 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.service.OrganizationEventPublisher.OrganizationEvent;
+import com.example.orgmanager.service.OrganizationEventPublisher.OverflowPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Cost of one broadcast against the number of open streams, for the shared
+ * pre-encoded frame and for what it replaced: a fresh event per subscriber
+ * whose payload Jackson serialized again on every send. The emitters encode
+ * what they get the way the message converters would and only count the
+ * bytes, so the numbers are the cost of producing the frames, not of the
+ * network. A shared broadcast is timed until every subscriber has its frame.
+ * Run with {@code ./gradlew :services:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SseBroadcastBenchmark {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Param({"100", "1000", "10000"})
+    public int subscribers;
+
+    private final AtomicLong sent = new AtomicLong();
+    private OrganizationEventPublisher publisher;
+    private List<CountingEmitter> emitters;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        publisher = new OrganizationEventPublisher(
+                new SseSettings(false, 0, 1, OverflowPolicy.DROP_OLDEST, Duration.ZERO, 1),
+                new SimpleMeterRegistry(), OBJECT_MAPPER);
+        emitters = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            publisher.subscribe(new CountingEmitter(sent), false, null);
+            emitters.add(new CountingEmitter(sent));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Benchmark
+    public long sharedFrame() {
+        long delivered = sent.get() + subscribers;
+        publisher.broadcast(OrganizationChange.deleted(next++));
+        while (sent.get() < delivered) {
+            Thread.onSpinWait();
+        }
+        return delivered;
+    }
+
+    @Benchmark
+    public long encodedPerSubscriber() throws IOException {
+        var event = new OrganizationEvent(OrganizationChange.DELETED, next++);
+        for (CountingEmitter emitter : emitters) {
+            emitter.send(SseEmitter.event().name("org").data(event));
+        }
+        return sent.get();
+    }
+
+    /** Encodes each part the way the message converters would and discards the bytes. */
+    private static final class CountingEmitter extends SseEmitter {
+        private final AtomicLong sent;
+        private long bytes;
+
+        CountingEmitter(AtomicLong sent) {
+            this.sent = sent;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            send(builder.build());
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> frame) throws IOException {
+            for (DataWithMediaType part : frame) {
+                Object data = part.getData();
+                if (data instanceof byte[] encoded) {
+                    bytes += encoded.length;
+                } else if (data instanceof String text) {
+                    bytes += text.getBytes(StandardCharsets.UTF_8).length;
+                } else {
+                    bytes += OBJECT_MAPPER.writeValueAsBytes(data).length;
+                }
+            }
+            sent.incrementAndGet();
+        }
+    }
+}
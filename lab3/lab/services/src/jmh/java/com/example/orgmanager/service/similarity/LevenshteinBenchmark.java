@@ -0,0 +1,106 @@
+package com.example.orgmanager.service.similarity;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the full-matrix distance with the bounded kernel when checking one
+ * new name against a table of existing organization names (run with
+ * {@code ./gradlew :services:jmh}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevenshteinBenchmark {
+    private static final int LIMIT = 2;
+    private static final int EXISTING = 2000;
+    private static final int QUERIES = 64;
+    private static final String[] PREFIXES = {"ООО", "ПАО", "ТР", "ИП"};
+    private static final String[] ADJECTIVES = {
+        "Северный", "Восточный", "Сибирский", "Уральский", "Балтийский",
+        "Новый", "Первый", "Центральный", "Региональный", "Торговый"};
+    private static final String[] NOUNS = {
+        "Ромашка", "Вектор", "Альянс", "Горизонт", "Меридиан",
+        "Технологии", "Логистика", "Инвест", "Строй", "Капитал"};
+    private static final String[] SUFFIXES = {"", " Групп", " Холдинг", " Сервис", " Плюс"};
+
+    private String[] existing;
+    private String[] queries;
+    private BoundedLevenshtein[] compiled;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(2024);
+        existing = new String[EXISTING];
+        for (int i = 0; i < EXISTING; i++) {
+            existing[i] = randomName(random) + " " + (i + 1);
+        }
+        queries = new String[QUERIES];
+        compiled = new BoundedLevenshtein[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = i % 2 == 0
+                    ? existing[random.nextInt(EXISTING)] + "И"
+                    : randomName(random) + " " + (EXISTING + i);
+            compiled[i] = BoundedLevenshtein.compile(queries[i]);
+        }
+    }
+
+    @Benchmark
+    public int fullMatrix() {
+        String query = queries[nextQuery()];
+        int similar = 0;
+        for (String name : existing) {
+            if (Levenshtein.distance(query, name) <= LIMIT) {
+                similar++;
+            }
+        }
+        return similar;
+    }
+
+    @Benchmark
+    public int bounded() {
+        BoundedLevenshtein query = compiled[nextQuery()];
+        int similar = 0;
+        for (String name : existing) {
+            if (query.isWithin(name, LIMIT)) {
+                similar++;
+            }
+        }
+        return similar;
+    }
+
+    @Benchmark
+    public int boundedIncludingCompile() {
+        BoundedLevenshtein query = BoundedLevenshtein.compile(queries[nextQuery()]);
+        int similar = 0;
+        for (String name : existing) {
+            if (query.isWithin(name, LIMIT)) {
+                similar++;
+            }
+        }
+        return similar;
+    }
+
+    private int nextQuery() {
+        next = (next + 1) % QUERIES;
+        return next;
+    }
+
+    private static String randomName(Random random) {
+        String name = PREFIXES[random.nextInt(PREFIXES.length)]
+                + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)]
+                + " " + NOUNS[random.nextInt(NOUNS.length)]
+                + SUFFIXES[random.nextInt(SUFFIXES.length)];
+        return name.toUpperCase(Locale.ROOT);
+    }
+}
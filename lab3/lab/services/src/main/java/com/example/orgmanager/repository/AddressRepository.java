@@ -3,7 +3,10 @@ package com.example.orgmanager.repository;
 import com.example.orgmanager.model.Address;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
@@ -18,6 +21,17 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
             + "where o.officialAddress = a or o.postalAddress = a)")
     int deleteUnassigned();
 
+    /**
+     * Deletes those of {@code ids} no organization references. Each candidate
+     * is a primary-key lookup plus index probes on the organization foreign
+     * keys, so the cost does not grow with the size of either table.
+     */
+    @Modifying
+    @Query("delete from Address a where a.id in :ids "
+            + "and not exists (select 1 from Organization o "
+            + "where o.officialAddress = a or o.postalAddress = a)")
+    int deleteUnassignedIn(@Param("ids") Collection<Long> ids);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
     @Query("select a from Address a where a.id = :id")
@@ -29,4 +43,26 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
     Optional<Address> findByStreetAndZip(
             @Param("street") String street,
             @Param("zipCode") String zipCode);
+
+    /**
+     * Typeahead search. The street prefix is matched through the trigram
+     * index on {@code upper(street)}, the zip prefix through a pattern-ops
+     * btree (db/lookup-index.sql).
+     */
+    Slice<AddressOptionView> findByStreetStartingWithIgnoreCaseOrZipCodeStartingWith(
+            String street,
+            String zipCode,
+            Pageable pageable);
+
+    Slice<AddressOptionView> findAllBy(Pageable pageable);
+
+    Optional<AddressOptionView> findOptionById(Long id);
+
+    interface AddressOptionView {
+        Long getId();
+
+        String getStreet();
+
+        String getZipCode();
+    }
 }
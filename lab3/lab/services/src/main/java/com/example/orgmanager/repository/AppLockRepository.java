@@ -20,4 +20,17 @@ public interface AppLockRepository extends JpaRepository<AppLock, String> {
     @Modifying
     @Query(value = "insert into app_lock(name) values (:name) on conflict (name) do nothing", nativeQuery = true)
     void insertIgnore(@Param("name") String name);
+
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+
+    @Query(value = "select 1 from (select pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+    Integer advisoryXactLock(@Param("key") long key);
+
+    @Query(value = "select set_config('lock_timeout', :timeout, true)", nativeQuery = true)
+    String setLocalLockTimeout(@Param("timeout") String timeout);
+
+    @Modifying
+    @Query(value = "set local lock_timeout to default", nativeQuery = true)
+    void resetLocalLockTimeout();
 }
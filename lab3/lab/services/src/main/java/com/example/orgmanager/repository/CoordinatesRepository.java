@@ -3,7 +3,11 @@ package com.example.orgmanager.repository;
 import com.example.orgmanager.model.Coordinates;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
@@ -19,6 +23,21 @@ public interface CoordinatesRepository
             + "where o.coordinates = c)")
     int deleteUnassigned();
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("select c.id from Coordinates c where c.id in :ids "
+            + "and not exists (select 1 from Organization o "
+            + "where o.coordinates = c)")
+    List<Long> findUnassignedIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.id from Coordinates c "
+            + "where not exists (select 1 from Organization o "
+            + "where o.coordinates = c)")
+    List<Long> findUnassignedIds();
+
+    @Query("select c.id as id, c.x as x, c.y as y from Coordinates c")
+    List<PointProjection> findAllPoints();
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
     @Query("select c from Coordinates c where c.id = :id")
@@ -26,12 +45,43 @@ public interface CoordinatesRepository
 
     Optional<Coordinates> findByXAndY(int x, Float y);
 
+    /** Typeahead search over a box; served by the (x, y) index. */
+    Slice<PointProjection> findByXBetweenAndYBetween(
+            int minX,
+            int maxX,
+            Float minY,
+            Float maxY,
+            Pageable pageable);
+
+    Optional<PointProjection> findPointById(Long id);
+
+    /**
+     * The bounding box comes first so the (x, y) index narrows the rows down
+     * before the exact distance is evaluated. Its bounds are computed from
+     * the centre in the query, {@code reach} being the distance rounded up
+     * for the integer x axis.
+     */
     @Query("select count(c) from Coordinates c "
-            + "where (:excludeId is null or c.id <> :excludeId) "
-            + "and ((c.x - :x) * (c.x - :x) + (c.y - :y) * (c.y - :y)) < :distanceSquared")
-    long countWithinDistance(
+            + "where c.x between :x - :reach and :x + :reach "
+            + "and c.y between :y - :distance and :y + :distance "
+            + "and (:excludeId is null or c.id <> :excludeId) "
+            + "and ((c.x - :x) * (c.x - :x) + (c.y - :y) * (c.y - :y)) < :distance * :distance")
+    long countWithinBox(
             @Param("x") int x,
             @Param("y") double y,
-            @Param("distanceSquared") double distanceSquared,
+            @Param("reach") int reach,
+            @Param("distance") double distance,
             @Param("excludeId") Long excludeId);
+
+    default long countWithinDistance(int x, double y, double distance, Long excludeId) {
+        return countWithinBox(x, y, (int) Math.ceil(distance), distance, excludeId);
+    }
+
+    interface PointProjection {
+        Long getId();
+
+        int getX();
+
+        Float getY();
+    }
 }
@@ -1,14 +1,15 @@
 package com.example.orgmanager.repository;
 
 import com.example.orgmanager.model.Organization;
-import com.example.orgmanager.model.OrganizationType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -16,33 +17,61 @@ import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface OrganizationRepository
-        extends JpaRepository<Organization, Integer> {
-    Page<Organization> findByName(String name, Pageable pageable);
-
-    Page<Organization> findByFullName(String fullName, Pageable pageable);
-
-    Page<Organization> findByOfficialAddressStreet(
-            String street,
-            Pageable pageable);
-
-    Page<Organization> findByPostalAddressStreet(
-            String street,
-            Pageable pageable);
-
-    Page<Organization> findByType(OrganizationType type, Pageable pageable);
+        extends JpaRepository<Organization, Integer>, OrganizationRepositoryCustom {
+    String SIMILAR_NAME_SELECT = "select case when s.name_distance <= s.full_name_distance "
+            + "then s.name else s.full_name end as \"existing\", "
+            + "least(s.name_distance, s.full_name_distance) as \"distance\" "
+            + "from (select o.name, o.full_name, "
+            + "levenshtein_less_equal(upper(o.name), :candidate, :maxDistance) as name_distance, "
+            + "levenshtein_less_equal(upper(o.full_name), :candidate, :maxDistance) as full_name_distance "
+            + "from organization o "
+            + "where (cast(:excludeId as integer) is null or o.id <> :excludeId) ";
+
+    String FULL_NAME_SELECT = "select o.id as id, o.fullName as fullName from Organization o where ";
+
+    /** Keyset position after (:fromName, :afterId); the {@code >=} bound is where the index scan starts. */
+    String FULL_NAME_AFTER = "o.fullName >= :fromName and (o.fullName > :fromName or o.id > :afterId) "
+            + "order by o.fullName, o.id";
+
+    String SIMILAR_NAME_ORDER = "where least(s.name_distance, s.full_name_distance) <= :maxDistance "
+            + "order by least(s.name_distance, s.full_name_distance) "
+            + "limit 1";
+
+    @Override
+    @EntityGraph(Organization.LISTING_GRAPH)
+    Page<Organization> findAll(Pageable pageable);
 
     long countByRating(double rating);
 
-    Stream<Organization> streamByFullNameStartingWith(String prefix);
-
-    Stream<Organization> streamByFullNameGreaterThan(String value);
-
-    List<Organization> findTop5ByOrderByAnnualTurnoverDesc();
-
-    Stream<Organization> streamTop10ByOrderByAnnualTurnoverDesc();
+    /**
+     * Full names matching the escaped LIKE {@code pattern}, which must start
+     * with {@code fromName} on the first page for the range bound to hold.
+     */
+    @Query(FULL_NAME_SELECT + "o.fullName like :pattern escape '\\' and " + FULL_NAME_AFTER)
+    Slice<FullNameProjection> findFullNamesLike(
+            @Param("pattern") String pattern,
+            @Param("fromName") String fromName,
+            @Param("afterId") Integer afterId,
+            Pageable page);
+
+    @Query(FULL_NAME_SELECT + "o.fullName > :value and " + FULL_NAME_AFTER)
+    Slice<FullNameProjection> findFullNamesGreaterThan(
+            @Param("value") String value,
+            @Param("fromName") String fromName,
+            @Param("afterId") Integer afterId,
+            Pageable page);
+
+    /** Highest annual turnover first; the page size is the only bound. */
+    @Query("select o.id as id, o.name as name, o.annualTurnover as annualTurnover, "
+            + "o.employeesCount as employeesCount "
+            + "from Organization o "
+            + "order by o.annualTurnover desc, o.id")
+    List<TurnoverProjection> findTurnoverLeaders(Pageable limit);
 
     Optional<Organization> findByNameIgnoreCase(String name);
 
+    List<Organization> findByCoordinatesIdInOrderById(Collection<Long> coordinatesIds);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
     @Query("select o from Organization o where o.id = :id")
@@ -53,6 +82,80 @@ public interface OrganizationRepository
             + "where (:excludeId is null or o.id <> :excludeId)")
     List<NameProjection> findNamesExcludingId(@Param("excludeId") Integer excludeId);
 
+    @Query("select o.id as id, o.name as name, o.fullName as fullName "
+            + "from Organization o "
+            + "where o.id = :id")
+    Optional<NameProjection> findNamesById(@Param("id") Integer id);
+
+    /**
+     * First organization whose trimmed, upper-cased name or full name is
+     * within {@code maxDistance} edits of {@code candidate}, checked in the
+     * database by name_distance_within from name-distance.sql so that nothing
+     * but a match is fetched. Every such name is {@code minLength} to
+     * {@code maxLength} characters long; the length indexes from
+     * name-length-index.sql serve those bands.
+     */
+    @Query(value = "select s.existing as \"existing\", s.distance as \"distance\" "
+            + "from (select o.name as existing, "
+            + "name_distance_within(upper(btrim(o.name)), :candidate, :maxDistance) as distance "
+            + "from organization o "
+            + "where (cast(:excludeId as integer) is null or o.id <> :excludeId) "
+            + "and length(btrim(o.name)) between :minLength and :maxLength "
+            + "union all "
+            + "select o.full_name, "
+            + "name_distance_within(upper(btrim(o.full_name)), :candidate, :maxDistance) "
+            + "from organization o "
+            + "where (cast(:excludeId as integer) is null or o.id <> :excludeId) "
+            + "and length(btrim(o.full_name)) between :minLength and :maxLength) s "
+            + "where s.distance <= :maxDistance "
+            + "limit 1",
+            nativeQuery = true)
+    Optional<SimilarNameProjection> findSimilarNameWithin(
+            @Param("candidate") String candidate,
+            @Param("maxDistance") int maxDistance,
+            @Param("excludeId") Integer excludeId,
+            @Param("minLength") int minLength,
+            @Param("maxLength") int maxLength);
+
+    /**
+     * Closest organization whose upper-cased name or full name is within
+     * {@code maxDistance} edits of {@code candidate}. Rows are pre-filtered by
+     * the trigram GIN indexes, so the caller must set
+     * {@code pg_trgm.similarity_threshold} low enough not to lose matches.
+     * PostgreSQL only (pg_trgm + fuzzystrmatch).
+     */
+    @Query(value = SIMILAR_NAME_SELECT
+            + "and (upper(o.name) % :candidate or upper(o.full_name) % :candidate)) s "
+            + SIMILAR_NAME_ORDER,
+            nativeQuery = true)
+    Optional<SimilarNameProjection> findSimilarNameByTrigrams(
+            @Param("candidate") String candidate,
+            @Param("maxDistance") int maxDistance,
+            @Param("excludeId") Integer excludeId);
+
+    /**
+     * Same as {@link #findSimilarNameByTrigrams} for candidates too short for
+     * the trigram bound to prune anything; only the length band is checked.
+     */
+    @Query(value = SIMILAR_NAME_SELECT
+            + "and (length(o.name) between :minLength and :maxLength "
+            + "or length(o.full_name) between :minLength and :maxLength)) s "
+            + SIMILAR_NAME_ORDER,
+            nativeQuery = true)
+    Optional<SimilarNameProjection> findSimilarNameByLength(
+            @Param("candidate") String candidate,
+            @Param("maxDistance") int maxDistance,
+            @Param("excludeId") Integer excludeId,
+            @Param("minLength") int minLength,
+            @Param("maxLength") int maxLength);
+
+    @Query(value = "select set_config('pg_trgm.similarity_threshold', :threshold, true)",
+            nativeQuery = true)
+    String setSimilarityThreshold(@Param("threshold") String threshold);
+
+    @Query(value = "select e.extname from pg_extension e where e.extname in (:names)", nativeQuery = true)
+    List<String> findInstalledExtensions(@Param("names") Collection<String> names);
+
     interface NameProjection {
         Integer getId();
 
@@ -60,4 +163,26 @@ public interface OrganizationRepository
 
         String getFullName();
     }
+
+    interface FullNameProjection {
+        Integer getId();
+
+        String getFullName();
+    }
+
+    interface TurnoverProjection {
+        Integer getId();
+
+        String getName();
+
+        Float getAnnualTurnover();
+
+        Long getEmployeesCount();
+    }
+
+    interface SimilarNameProjection {
+        String getExisting();
+
+        Integer getDistance();
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.orgmanager.repository;
+
+import com.example.orgmanager.model.Organization;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface OrganizationRepositoryCustom {
+    /**
+     * Organizations matching {@code spec} in the order and window of
+     * {@code pageable}. Fetches one extra row to tell whether more follow
+     * instead of running a separate count query. Associations shown in the
+     * organization table are fetched in the same statement.
+     */
+    Slice<Organization> findSlice(Specification<Organization> spec, Pageable pageable);
+
+    /**
+     * Like {@link #findSlice} but with the total, counted only when it
+     * cannot be inferred from the page itself.
+     */
+    Page<Organization> findPage(Specification<Organization> spec, Pageable pageable);
+}
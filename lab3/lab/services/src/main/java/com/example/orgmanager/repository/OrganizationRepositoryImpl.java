@@ -0,0 +1,80 @@
+package com.example.orgmanager.repository;
+
+import com.example.orgmanager.model.Organization;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+class OrganizationRepositoryImpl implements OrganizationRepositoryCustom {
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
+    private final EntityManager entityManager;
+
+    OrganizationRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<Organization> findSlice(Specification<Organization> spec, Pageable pageable) {
+        TypedQuery<Organization> query = listingQuery(spec, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+        query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<Organization> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(
+                hasNext ? rows.subList(0, pageable.getPageSize()) : rows,
+                pageable,
+                hasNext);
+    }
+
+    @Override
+    public Page<Organization> findPage(Specification<Organization> spec, Pageable pageable) {
+        TypedQuery<Organization> query = listingQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    private TypedQuery<Organization> listingQuery(Specification<Organization> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Organization> query = cb.createQuery(Organization.class);
+        Root<Organization> root = query.from(Organization.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        TypedQuery<Organization> typed = entityManager.createQuery(query);
+        typed.setHint(FETCH_GRAPH, entityManager.getEntityGraph(Organization.LISTING_GRAPH));
+        return typed;
+    }
+
+    private long count(Specification<Organization> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Organization> root = query.from(Organization.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.orgmanager.repository;
+
+import com.example.orgmanager.model.Organization;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.Locale;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class OrganizationSpecifications {
+    private static final String ID = "id";
+    private static final char ESCAPE = '\\';
+
+    private OrganizationSpecifications() {
+    }
+
+    public static Specification<Organization> unrestricted() {
+        return (root, query, cb) -> null;
+    }
+
+    public static Specification<Organization> equalTo(String attribute, Object value) {
+        return (root, query, cb) -> cb.equal(path(root, attribute), value);
+    }
+
+    /** Served by a {@code text_pattern_ops} btree index on the column. */
+    public static Specification<Organization> startsWith(String attribute, String prefix) {
+        return (root, query, cb) -> cb.like(path(root, attribute), escapeLike(prefix) + "%", ESCAPE);
+    }
+
+    /**
+     * The case-insensitive match narrows the rows through the trigram index
+     * on {@code upper(column)}; the exact match then rechecks the case.
+     */
+    public static Specification<Organization> contains(String attribute, String fragment) {
+        return containsIgnoreCase(attribute, fragment).and((root, query, cb) ->
+                cb.like(path(root, attribute), "%" + escapeLike(fragment) + "%", ESCAPE));
+    }
+
+    /** Served by a trigram GIN index on {@code upper(column)}. */
+    public static Specification<Organization> containsIgnoreCase(String attribute, String fragment) {
+        String pattern = "%" + escapeLike(fragment.toUpperCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.upper(path(root, attribute)), pattern, ESCAPE);
+    }
+
+    /** Inclusive range; a {@code null} bound leaves that side open. */
+    public static <T extends Comparable<? super T>> Specification<Organization> between(
+            String attribute,
+            T min,
+            T max) {
+        return (root, query, cb) -> {
+            Path<T> value = path(root, attribute);
+            if (min != null && max != null) {
+                return cb.between(value, min, max);
+            }
+            if (min != null) {
+                return cb.greaterThanOrEqualTo(value, min);
+            }
+            return max == null ? null : cb.lessThanOrEqualTo(value, max);
+        };
+    }
+
+    private static <T> Path<T> path(Root<Organization> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<T> typed = (Path<T>) path;
+        return typed;
+    }
+
+    /** Escapes LIKE wildcards for a pattern matched with {@code escape '\'}. */
+    public static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Rows strictly after ({@code value}, {@code id}) when ordered by
+     * {@code property} and then id, both in {@code direction}. PostgreSQL
+     * sorts NULL above every value, so for a {@code nullable} property the
+     * NULL group comes last when ascending and first when descending.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Organization> after(
+            String property,
+            Sort.Direction direction,
+            boolean nullable,
+            Comparable value,
+            Integer id) {
+        return (root, query, cb) -> {
+            boolean ascending = direction.isAscending();
+            Path<Integer> rowId = root.get(ID);
+            Predicate idAfter = ascending ? cb.greaterThan(rowId, id) : cb.lessThan(rowId, id);
+            if (ID.equals(property)) {
+                return idAfter;
+            }
+            Path<Comparable> key = root.get(property);
+            if (value == null) {
+                Predicate inNullGroup = cb.and(cb.isNull(key), idAfter);
+                return ascending ? inNullGroup : cb.or(inNullGroup, cb.isNotNull(key));
+            }
+            Predicate seek = cb.or(
+                    ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), idAfter));
+            return nullable && ascending ? cb.or(seek, cb.isNull(key)) : seek;
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.orgmanager.service;
+
+import jakarta.validation.ValidationException;
+import java.util.Arrays;
+
+/**
+ * How a text filter compares its value. {@code eq} and {@code prefix} are
+ * served by the {@code text_pattern_ops} btree indexes, {@code contains} and
+ * {@code ilike} by the trigram GIN indexes on the upper-cased column.
+ */
+public enum FilterOperator {
+    /** Exact, case-sensitive match. */
+    EQ("eq"),
+    /** Case-sensitive match at the start of the value. */
+    PREFIX("prefix"),
+    /** Case-sensitive match anywhere in the value. */
+    CONTAINS("contains"),
+    /** Case-insensitive match anywhere in the value. */
+    ILIKE("ilike");
+
+    private final String code;
+
+    FilterOperator(String code) {
+        this.code = code;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public static FilterOperator fromCode(String code) {
+        return Arrays.stream(values())
+                .filter(operator -> operator.code.equals(code))
+                .findFirst()
+                .orElseThrow(() -> new ValidationException("Неизвестный оператор фильтра: " + code));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.repository.OrganizationRepository;
+import java.util.List;
+
+/**
+ * One page of a full name search. {@code nextCursor} is {@code null} on the
+ * last page.
+ */
+public record FullNamePage(List<OrganizationRepository.FullNameProjection> items, String nextCursor) {
+}
@@ -0,0 +1,9 @@
+package com.example.orgmanager.service;
+
+public record NearbyOrganization(
+        Integer id,
+        String name,
+        int x,
+        double y,
+        double distance) {
+}
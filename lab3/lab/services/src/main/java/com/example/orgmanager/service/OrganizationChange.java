@@ -0,0 +1,49 @@
+package com.example.orgmanager.service;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A committed write as the list pages hear about it. {@code row} is the
+ * organization after the write and is absent for a deletion;
+ * {@code changed} names the fields an update modified and is empty for
+ * the other types.
+ */
+public record OrganizationChange(String type, Integer id, OrganizationRow row, Set<String> changed) {
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    public OrganizationChange {
+        changed = Set.copyOf(changed);
+    }
+
+    public static OrganizationChange created(OrganizationRow row) {
+        return new OrganizationChange(CREATED, row.id(), row, Set.of());
+    }
+
+    public static OrganizationChange updated(OrganizationRow before, OrganizationRow after) {
+        return new OrganizationChange(UPDATED, after.id(), after, after.changedFrom(before));
+    }
+
+    public static OrganizationChange deleted(Integer id) {
+        return new OrganizationChange(DELETED, id, null, Set.of());
+    }
+
+    /**
+     * This change followed by {@code next} of the same organization, as one:
+     * the latest row wins, a deletion wins outright, and a creation stays a
+     * creation.
+     */
+    public OrganizationChange then(OrganizationChange next) {
+        if (!UPDATED.equals(next.type) || DELETED.equals(type)) {
+            return next;
+        }
+        if (CREATED.equals(type)) {
+            return new OrganizationChange(CREATED, id, next.row, Set.of());
+        }
+        Set<String> both = new LinkedHashSet<>(changed);
+        both.addAll(next.changed);
+        return new OrganizationChange(type, id, next.row, both);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.orgmanager.service;
+
+import jakarta.validation.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position after the last row of a keyset page: the sort key and id of that
+ * row plus the order they belong to. Clients only ever see it as an opaque
+ * URL-safe token.
+ */
+record OrganizationCursor(
+        OrganizationSortField field,
+        Sort.Direction direction,
+        Comparable<?> value,
+        Integer id) {
+    private static final String INVALID_CURSOR = "Некорректный курсор постраничной навигации";
+    private static final String SEPARATOR = "\n";
+    private static final int PARTS = 4;
+    private static final char NULL_VALUE = '~';
+    private static final char PRESENT_VALUE = '=';
+
+    String encode() {
+        String raw = String.join(SEPARATOR,
+                field.name(),
+                direction.name(),
+                id.toString(),
+                value == null ? String.valueOf(NULL_VALUE) : PRESENT_VALUE + value.toString());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrganizationCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, PARTS);
+            if (parts.length != PARTS || parts[3].isEmpty()) {
+                throw new ValidationException(INVALID_CURSOR);
+            }
+            OrganizationSortField field = OrganizationSortField.valueOf(parts[0]);
+            String encodedValue = parts[3];
+            Comparable<?> value = switch (encodedValue.charAt(0)) {
+                case NULL_VALUE -> null;
+                case PRESENT_VALUE -> field.parse(encodedValue.substring(1));
+                default -> throw new ValidationException(INVALID_CURSOR);
+            };
+            return new OrganizationCursor(
+                    field,
+                    Sort.Direction.valueOf(parts[1]),
+                    value,
+                    Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException(INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.orgmanager.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counter that moves forward after every committed organization write made
+ * through this node. The organization table is rendered from nothing but
+ * committed rows, so equal versions mean no such write happened; writes
+ * from other nodes or straight in the database do not move it, which is
+ * why whatever is keyed by it also expires. It starts from the boot time
+ * rather than zero so validators issued before a restart never match again.
+ */
+@Component
+public class OrganizationDataVersion {
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    void bump() {
+        version.incrementAndGet();
+    }
+}
@@ -1,20 +1,75 @@
 package com.example.orgmanager.service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+/**
+ * Pushes organization changes to the open list pages. Broadcasting only
+ * puts the event on each subscriber's bounded queue; a virtual thread per
+ * busy subscriber does the blocking sends, so a slow browser delays nobody
+ * but itself. A queue that is full is handled by the configured
+ * {@link OverflowPolicy}, except for delta subscribers, which get a
+ * {@value #RESYNC} event in place of their whole backlog. Each event is encoded into its wire frame once and
+ * that frame is written to every subscriber, so the cost of serializing it
+ * does not grow with the number of open pages. Changes that arrive within
+ * the coalescing window of the first one are sent together as a single
+ * {@value #BATCH} event, so a bulk import costs each page one reload.
+ * Subscribers that opt into deltas get {@value #ROWS} events instead, which
+ * carry the rows themselves so a page can patch its table without fetching
+ * it again. Every window gets the next event id and is kept in a bounded
+ * history, so a browser that reconnects with {@code Last-Event-ID} is sent
+ * only what it missed, or a single {@value #RESYNC} event when that is no
+ * longer known.
+ *
+ * <p>The coalescing windows and the heartbeat run on a scheduler thread of
+ * the publisher's own, so they neither wait for nor hold up the jobs on the
+ * shared Spring scheduler.
+ */
 @Service
 public class OrganizationEventPublisher {
+    /** Event sent in place of a backlog that was coalesced; clients reload on it like on any other. */
+    public static final String REFRESH = "refresh";
+    /** Event name of a coalesced window; its data maps each change type to the affected ids. */
+    public static final String BATCH = "org-batch";
+    /** Event name of the delta stream; its data lists the changes of one window, one per organization. */
+    public static final String ROWS = "org-rows";
+    /** Event telling a resumed stream that some of what it missed is gone; the page reloads. */
+    public static final String RESYNC = "resync";
+
     private static final long TIMEOUT_MINUTES = 5L;
     private static final Logger LOGGER =
             LoggerFactory.getLogger(OrganizationEventPublisher.class);
@@ -22,74 +77,269 @@ public class OrganizationEventPublisher {
             Duration.ofMinutes(TIMEOUT_MINUTES).toMillis();
 
     private final boolean heartbeatEnabled;
+    private final long heartbeatIntervalMs;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService scheduler;
+    private final Duration coalesceWindow;
+    /** Changes of the open window in commit order; guarded by itself. */
+    private final List<OrganizationChange> window = new ArrayList<>();
+    private final int replayCapacity;
+    /** Prefix of this run's event ids, so an id issued before a restart is never taken for a current one. */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    /**
+     * The last windows sent, oldest first. Guarded by itself, which also
+     * orders sending a window against a resumed subscriber joining, so the
+     * subscriber gets each window exactly once.
+     */
+    private final Deque<Sent> history = new ArrayDeque<>();
+    private long sequence;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-", 0).factory());
 
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final Counter droppedEvents;
+    private final Counter coalescedEvents;
+    private final Counter replayedResumes;
+    private final Counter resyncedResumes;
+    /** Data of what a coalesced backlog is replaced with. */
+    private final String refreshData;
 
+    @Autowired
     public OrganizationEventPublisher(
-            @Value("${app.sse.heartbeat-enabled:false}")
-            boolean heartbeatEnabled) {
-        this.heartbeatEnabled = heartbeatEnabled;
+            SseSettings settings,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper) {
+        this(settings, meterRegistry, objectMapper,
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("sse-scheduler").daemon().factory()));
+    }
+
+    OrganizationEventPublisher(
+            SseSettings settings,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            ScheduledExecutorService scheduler) {
+        this.heartbeatEnabled = settings.heartbeatEnabled();
+        this.heartbeatIntervalMs = settings.heartbeatIntervalMs();
+        this.queueCapacity = Math.max(1, settings.queueCapacity());
+        this.overflowPolicy = settings.overflowPolicy();
+        this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
+        this.coalesceWindow = settings.coalesceWindow();
+        this.replayCapacity = Math.max(1, settings.replayCapacity());
+        Gauge.builder("app.sse.subscribers", subscribers, List::size)
+                .description("Open organization event streams")
+                .register(meterRegistry);
+        Gauge.builder("app.sse.queue.depth", this, OrganizationEventPublisher::queuedEvents)
+                .description("Events waiting to be sent, over all subscribers")
+                .register(meterRegistry);
+        Gauge.builder("app.sse.queue.max-depth", this, OrganizationEventPublisher::deepestQueue)
+                .description("Events waiting for the most backlogged subscriber")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("app.sse.events.dropped")
+                .description("Events a subscriber never received because its queue was full")
+                .tag("policy", overflowPolicy.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        this.coalescedEvents = Counter.builder("app.sse.events.coalesced")
+                .description("Changes sent as part of a batch event instead of on their own")
+                .register(meterRegistry);
+        this.replayedResumes = resumes(meterRegistry, "replayed");
+        this.resyncedResumes = resumes(meterRegistry, RESYNC);
+        try {
+            this.refreshData = objectMapper.writeValueAsString(new OrganizationEvent(REFRESH, null));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Organization events cannot be serialized", ex);
+        }
     }
 
-    public SseEmitter subscribe() {
-        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
-        emitters.add(emitter);
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (heartbeatEnabled) {
+            scheduler.scheduleAtFixedRate(
+                    this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
 
-        emitter.onCompletion(() -> emitters.remove(emitter));
+    /**
+     * A stream of {@code org} events, or of {@value #ROWS} events with
+     * {@code delta}. With the id of the last event a previous stream
+     * received, it starts with the windows sent since.
+     */
+    public SseEmitter subscribe(boolean delta, String lastEventId) {
+        return subscribe(new SseEmitter(TIMEOUT_MS), delta, lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, boolean delta, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, delta);
+        if (lastEventId == null || lastEventId.isBlank()) {
+            subscribers.add(subscriber);
+        } else {
+            synchronized (history) {
+                resume(subscriber, lastEventId.strip());
+                subscribers.add(subscriber);
+            }
+        }
+
+        emitter.onCompletion(subscriber::close);
         emitter.onTimeout(() -> {
-            emitters.remove(emitter);
+            subscriber.close();
             safeComplete(emitter);
         });
         emitter.onError(e -> {
-            emitters.remove(emitter);
+            subscriber.close();
             safeComplete(emitter, e);
         });
 
         return emitter;
     }
 
-    public void broadcast(String type, Integer id) {
-        if (emitters.isEmpty()) {
+    /**
+     * Adds the change to the open coalescing window, opening one if there is
+     * none. Nothing is sent from the calling thread.
+     */
+    public void broadcast(OrganizationChange change) {
+        // kept even without subscribers: a browser that is reconnecting right now needs it
+        synchronized (window) {
+            window.add(change);
+            if (window.size() > 1) {
+                return;
+            }
+        }
+        if (coalesceWindow.isZero()) {
+            flush();
+            return;
+        }
+        try {
+            scheduler.schedule(this::flush, coalesceWindow.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (Throwable t) {
+            LOGGER.error("Broadcast failed", t);
+            flush();
+        }
+    }
+
+    /**
+     * Sends the changes of the window that just closed. Each kind of frame
+     * is encoded only if somebody subscribed to it.
+     */
+    void flush() {
+        List<OrganizationChange> changes;
+        synchronized (window) {
+            changes = List.copyOf(window);
+            window.clear();
+        }
+        if (changes.isEmpty()) {
             return;
         }
         try {
-            var event = new OrganizationEvent(type, id);
-            for (SseEmitter emitter : emitters) {
-                try {
-                    emitter.send(
-                            SseEmitter.event()
-                                    .name("org")
-                                    .data(event));
-                } catch (Exception e) {
-                    LOGGER.debug(
-                            "Removing broken SSE emitter: {}",
-                            e.getMessage());
-                    emitters.remove(emitter);
-                    safeComplete(emitter, e);
+            synchronized (history) {
+                Sent sent = new Sent(++sequence, changes);
+                history.addLast(sent);
+                if (history.size() > replayCapacity) {
+                    history.removeFirst();
+                }
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.offer(frame(sent, subscriber.delta));
                 }
             }
+            if (changes.size() > 1) {
+                coalescedEvents.increment(changes.size());
+            }
         } catch (Throwable t) {
             LOGGER.error("Broadcast failed", t);
         }
     }
 
-    @Scheduled(fixedRateString = "${app.sse.heartbeat-interval-ms:15000}")
-    public void heartbeat() {
-        if (!heartbeatEnabled || emitters.isEmpty()) {
+    /**
+     * Queues what the subscriber missed after {@code lastEventId}, or a
+     * {@value #RESYNC} event if that is not in the history any more or would
+     * not fit its queue. Called with the history lock held.
+     */
+    private void resume(Subscriber subscriber, String lastEventId) {
+        long last = sequenceOf(lastEventId);
+        long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().sequence();
+        if (last < 0 || last > sequence || last + 1 < oldest || sequence - last > queueCapacity) {
+            resyncedResumes.increment();
+            subscriber.offer(Frame.of(eventId(sequence), RESYNC, eventId(sequence)));
             return;
         }
+        for (Sent sent : history) {
+            if (sent.sequence() > last) {
+                subscriber.offer(frame(sent, subscriber.delta));
+            }
+        }
+        replayedResumes.increment();
+    }
+
+    /** Sequence number of an id issued by this run, -1 for anything else. */
+    private long sequenceOf(String eventId) {
+        int separator = eventId.indexOf('-');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
         try {
-            for (SseEmitter emitter : emitters) {
-                try {
-                    emitter.send(
-                            SseEmitter.event()
-                                    .name("ping")
-                                    .data(
-                                            Instant.now().toString(),
-                                            MediaType.TEXT_PLAIN));
-                } catch (Exception e) {
-                    emitters.remove(emitter);
-                    safeComplete(emitter, e);
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequenceNumber) {
+        return epoch + "-" + sequenceNumber;
+    }
+
+    private Frame frame(Sent sent, boolean delta) {
+        try {
+            if (delta) {
+                if (sent.rows == null) {
+                    sent.rows = rowsFrame(eventId(sent.sequence()), sent.changes());
+                }
+                return sent.rows;
+            }
+            if (sent.ids == null) {
+                sent.ids = idsFrame(eventId(sent.sequence()), sent.changes());
+            }
+            return sent.ids;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Organization events cannot be serialized", ex);
+        }
+    }
+
+    /** A lone change as is, several as the ids of each type. */
+    private Frame idsFrame(String eventId, List<OrganizationChange> changes) throws JsonProcessingException {
+        if (changes.size() == 1) {
+            OrganizationChange change = changes.get(0);
+            return Frame.of(eventId, "org",
+                    objectMapper.writeValueAsString(new OrganizationEvent(change.type(), change.id())));
+        }
+        Map<String, Set<Integer>> idsByType = new LinkedHashMap<>();
+        for (OrganizationChange change : changes) {
+            idsByType.computeIfAbsent(change.type(), type -> new LinkedHashSet<>()).add(change.id());
+        }
+        return Frame.of(eventId, BATCH, objectMapper.writeValueAsString(idsByType));
+    }
+
+    /** One change per organization, the ones of the same organization merged in commit order. */
+    private Frame rowsFrame(String eventId, List<OrganizationChange> changes) throws JsonProcessingException {
+        Map<Integer, OrganizationChange> byId = new LinkedHashMap<>();
+        for (OrganizationChange change : changes) {
+            byId.merge(change.id(), change, OrganizationChange::then);
+        }
+        return Frame.of(eventId, ROWS, objectMapper.writeValueAsString(byId.values()));
+    }
+
+    void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            Frame ping = Frame.of(null, "ping", Instant.now().toString());
+            for (Subscriber subscriber : subscribers) {
+                // a subscriber with a backlog is being written to anyway
+                if (subscriber.idle()) {
+                    subscriber.offer(ping);
                 }
             }
         } catch (Throwable t) {
@@ -97,9 +347,41 @@ public class OrganizationEventPublisher {
         }
     }
 
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
     public record OrganizationEvent(String type, Integer id) {
     }
 
+    /** What happens to a subscriber whose queue is full when another event arrives. */
+    public enum OverflowPolicy {
+        /** The oldest queued event is discarded to make room. */
+        DROP_OLDEST,
+        /** The whole backlog becomes a single {@link #REFRESH} event. */
+        COALESCE,
+        /** The stream is closed; the browser reconnects and reloads. */
+        DISCONNECT
+    }
+
+    private long queuedEvents() {
+        long total = 0;
+        for (Subscriber subscriber : subscribers) {
+            total += subscriber.depth();
+        }
+        return total;
+    }
+
+    private long deepestQueue() {
+        long deepest = 0;
+        for (Subscriber subscriber : subscribers) {
+            deepest = Math.max(deepest, subscriber.depth());
+        }
+        return deepest;
+    }
+
     private void safeComplete(SseEmitter emitter) {
         safeComplete(emitter, null);
     }
@@ -117,4 +399,181 @@ public class OrganizationEventPublisher {
         }
     }
 
+    private static Counter resumes(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.sse.resumes")
+                .description("Reconnected streams by whether the missed events could be replayed")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /** A window that was sent, with its frames encoded the first time a subscriber of that kind needs them. */
+    private static final class Sent {
+        private final long sequence;
+        private final List<OrganizationChange> changes;
+        private Frame ids;
+        private Frame rows;
+
+        Sent(long sequence, List<OrganizationChange> changes) {
+            this.sequence = sequence;
+            this.changes = changes;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+
+        List<OrganizationChange> changes() {
+            return changes;
+        }
+    }
+
+    /**
+     * One event exactly as it goes on the wire. The bytes are handed to the
+     * byte array converter, which writes them without copying or re-encoding.
+     * {@code id} is {@code null} for events that are not replayed.
+     */
+    private record Frame(String id, Set<ResponseBodyEmitter.DataWithMediaType> parts) {
+        static Frame of(String id, String name, String data) {
+            StringBuilder text = new StringBuilder();
+            if (id != null) {
+                text.append("id:").append(id).append('\n');
+            }
+            text.append("event:").append(name).append('\n');
+            // a line break inside the payload would end the field, so each line gets its own
+            for (String line : data.split("\r\n|\r|\n", -1)) {
+                text.append("data:").append(line).append('\n');
+            }
+            byte[] bytes = text.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+            return new Frame(id, Set.of(new ResponseBodyEmitter.DataWithMediaType(bytes, MediaType.TEXT_PLAIN)));
+        }
+    }
+
+    /**
+     * One open stream. The queue and the flags are guarded by the subscriber
+     * itself. Nothing is sent or completed while that lock is held: a send
+     * that blocks also holds the emitter's own lock, so it is always the
+     * subscriber's dispatcher thread that writes to the emitter.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final boolean delta;
+        private final Deque<Frame> pending = new ArrayDeque<>();
+        /** Whether a dispatcher thread owns the sends; at most one does, which keeps events in order. */
+        private boolean draining;
+        private boolean closed;
+        /** Closed for falling behind; the dispatcher completes the emitter once it is done with its send. */
+        private boolean fellBehind;
+
+        Subscriber(SseEmitter emitter, boolean delta) {
+            this.emitter = emitter;
+            this.delta = delta;
+        }
+
+        void offer(Frame frame) {
+            boolean startDrain;
+            boolean disconnect;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= queueCapacity && delta) {
+                    // a row patch that never arrives leaves the table wrong, so the page reloads instead
+                    String newest = newestId(frame);
+                    droppedEvents.increment(pending.size() + 1);
+                    pending.clear();
+                    frame = Frame.of(newest, RESYNC, Objects.toString(newest, ""));
+                } else if (pending.size() >= queueCapacity) {
+                    switch (overflowPolicy) {
+                        case DROP_OLDEST -> {
+                            pending.pollFirst();
+                            droppedEvents.increment();
+                        }
+                        case COALESCE -> {
+                            String newest = newestId(frame);
+                            droppedEvents.increment(pending.size() + 1);
+                            pending.clear();
+                            frame = Frame.of(newest, "org", refreshData);
+                        }
+                        case DISCONNECT -> {
+                            droppedEvents.increment(pending.size() + 1);
+                            pending.clear();
+                            closed = true;
+                            fellBehind = true;
+                        }
+                        default -> throw new IllegalStateException("Unknown overflow policy " + overflowPolicy);
+                    }
+                }
+                if (!closed) {
+                    pending.addLast(frame);
+                }
+                startDrain = !draining;
+                draining = true;
+                disconnect = closed;
+            }
+            if (disconnect) {
+                subscribers.remove(this);
+            }
+            if (startDrain) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        /**
+         * Id of the newest event among the queue and {@code frame}, which the
+         * event replacing them carries so a reconnect resumes after all of them.
+         */
+        private String newestId(Frame frame) {
+            String newest = frame.id();
+            for (Iterator<Frame> it = pending.descendingIterator(); newest == null && it.hasNext();) {
+                newest = it.next().id();
+            }
+            return newest;
+        }
+
+        private void drain() {
+            while (true) {
+                Frame next;
+                synchronized (this) {
+                    next = closed ? null : pending.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        if (!fellBehind) {
+                            return;
+                        }
+                    }
+                }
+                if (next == null) {
+                    LOGGER.debug("Disconnecting SSE subscriber that fell {} events behind", queueCapacity);
+                    safeComplete(emitter);
+                    return;
+                }
+                try {
+                    emitter.send(next.parts());
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.debug(
+                            "Removing broken SSE emitter: {}",
+                            e.getMessage());
+                    close();
+                    safeComplete(emitter, e);
+                    return;
+                }
+            }
+        }
+
+        synchronized boolean idle() {
+            return !draining && pending.isEmpty();
+        }
+
+        synchronized int depth() {
+            return pending.size();
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            subscribers.remove(this);
+        }
+    }
 }
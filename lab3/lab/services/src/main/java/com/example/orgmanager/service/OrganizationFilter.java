@@ -1,15 +1,75 @@
 package com.example.orgmanager.service;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
-public record OrganizationFilter(Optional<String> field, Optional<String> value) {
+/**
+ * Text conditions and numeric ranges that all have to hold. Fields and
+ * values are trimmed; conditions without a field or value and ranges without
+ * a bound are dropped.
+ */
+public record OrganizationFilter(List<Condition> conditions, List<Range> ranges) {
     public OrganizationFilter {
-        field = Objects.requireNonNull(field).map(String::trim).filter(f -> !f.isEmpty());
-        value = Objects.requireNonNull(value).map(String::trim).filter(v -> !v.isEmpty());
+        conditions = List.copyOf(conditions);
+        ranges = ranges.stream().filter(range -> !range.isOpen()).toList();
+    }
+
+    public OrganizationFilter(Optional<String> field, Optional<String> value) {
+        this(Condition.of(field, FilterOperator.EQ, value).stream().toList(), List.of());
     }
 
     public boolean isEmpty() {
-        return field.isEmpty() || value.isEmpty();
+        return conditions.isEmpty() && ranges.isEmpty();
+    }
+
+    /** Field of the first condition, the one the single-row filter form edits. */
+    public Optional<String> field() {
+        return conditions.stream().findFirst().map(Condition::field);
+    }
+
+    public Optional<String> value() {
+        return conditions.stream().findFirst().map(Condition::value);
+    }
+
+    public Optional<FilterOperator> operator() {
+        return conditions.stream().findFirst().map(Condition::operator);
+    }
+
+    public record Condition(String field, FilterOperator operator, String value) {
+        public Condition {
+            Objects.requireNonNull(field, "field");
+            Objects.requireNonNull(operator, "operator");
+            Objects.requireNonNull(value, "value");
+        }
+
+        public static Optional<Condition> of(
+                Optional<String> field,
+                FilterOperator operator,
+                Optional<String> value) {
+            Optional<String> trimmedField = trimmed(field);
+            Optional<String> trimmedValue = trimmed(value);
+            if (trimmedField.isEmpty() || trimmedValue.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Condition(trimmedField.get(), operator, trimmedValue.get()));
+        }
+    }
+
+    /** Inclusive bounds on a numeric field; a missing bound is unbounded. */
+    public record Range(String field, Optional<String> min, Optional<String> max) {
+        public Range {
+            Objects.requireNonNull(field, "field");
+            min = trimmed(min);
+            max = trimmed(max);
+        }
+
+        boolean isOpen() {
+            return min.isEmpty() && max.isEmpty();
+        }
+    }
+
+    private static Optional<String> trimmed(Optional<String> value) {
+        return Objects.requireNonNull(value).map(String::trim).filter(v -> !v.isEmpty());
     }
 }
@@ -0,0 +1,14 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.repository.AddressRepository;
+import com.example.orgmanager.repository.CoordinatesRepository;
+import com.example.orgmanager.repository.OrganizationRepository;
+import org.springframework.stereotype.Component;
+
+/** The tables an organization is stored in: its own row, its addresses and its coordinates. */
+@Component
+public record OrganizationRepositories(
+        OrganizationRepository organizations,
+        AddressRepository addresses,
+        CoordinatesRepository coordinates) {
+}
@@ -0,0 +1,69 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.model.Address;
+import com.example.orgmanager.model.Organization;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * One organization as the list table shows it: every column already printed
+ * the way the table fragment prints it, so a page can patch its row without
+ * formatting anything, plus the street fields the list can be filtered by.
+ */
+public record OrganizationRow(
+        Integer id,
+        String name,
+        String fullName,
+        String type,
+        String annualTurnover,
+        String employeesCount,
+        String rating,
+        String officialStreet,
+        String postalStreet) {
+    /** Named like the list's sort and filter parameters, so a page can tell whether its view is affected. */
+    private static final List<Map.Entry<String, Function<OrganizationRow, String>>> FIELDS = List.of(
+            Map.entry("name", OrganizationRow::name),
+            Map.entry("fullName", OrganizationRow::fullName),
+            Map.entry("type", OrganizationRow::type),
+            Map.entry("annualTurnover", OrganizationRow::annualTurnover),
+            Map.entry("employeesCount", OrganizationRow::employeesCount),
+            Map.entry("rating", OrganizationRow::rating),
+            Map.entry("officialStreet", OrganizationRow::officialStreet),
+            Map.entry("postalStreet", OrganizationRow::postalStreet));
+
+    public static OrganizationRow of(Organization org) {
+        return new OrganizationRow(
+                org.getId(),
+                text(org.getName()),
+                text(org.getFullName()),
+                text(org.getType()),
+                text(org.getAnnualTurnover()),
+                text(org.getEmployeesCount()),
+                text(org.getRating()),
+                street(org.getOfficialAddress()),
+                street(org.getPostalAddress()));
+    }
+
+    /** Names of the fields whose value differs from {@code previous}. */
+    public Set<String> changedFrom(OrganizationRow previous) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (Map.Entry<String, Function<OrganizationRow, String>> field : FIELDS) {
+            if (!Objects.equals(field.getValue().apply(this), field.getValue().apply(previous))) {
+                changed.add(field.getKey());
+            }
+        }
+        return changed;
+    }
+
+    private static String street(Address address) {
+        return address == null ? "" : text(address.getStreet());
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : String.valueOf(value);
+    }
+}
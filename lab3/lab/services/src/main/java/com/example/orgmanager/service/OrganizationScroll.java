@@ -0,0 +1,10 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.model.Organization;
+import org.springframework.data.domain.Slice;
+
+/**
+ * One keyset page. {@code nextCursor} is {@code null} on the last page.
+ */
+public record OrganizationScroll(Slice<Organization> slice, String nextCursor) {
+}
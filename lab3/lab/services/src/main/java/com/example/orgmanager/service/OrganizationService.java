@@ -7,8 +7,15 @@ import com.example.orgmanager.model.OrganizationType;
 import com.example.orgmanager.repository.AddressRepository;
 import com.example.orgmanager.repository.CoordinatesRepository;
 import com.example.orgmanager.repository.OrganizationRepository;
+import com.example.orgmanager.repository.OrganizationSpecifications;
+import com.example.orgmanager.service.analytics.TurnoverLeader;
+import com.example.orgmanager.service.analytics.TurnoverLeaderboard;
 import com.example.orgmanager.service.lock.DatabaseLockService;
+import com.example.orgmanager.service.lock.LocalNameLocks;
 import com.example.orgmanager.service.dto.OrganizationForm;
+import com.example.orgmanager.service.similarity.NameSimilarityService;
+import com.example.orgmanager.service.spatial.CoordinatesProximityService;
+import com.example.orgmanager.service.tx.SerializableTransactionExecutor;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 import java.util.ArrayList;
@@ -17,16 +24,19 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.TransactionDefinition;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
@@ -47,15 +57,23 @@ public class OrganizationService {
             "Требуется указать улицу почтового адреса, если не выбран существующий";
     private static final String NAME_ALREADY_EXISTS =
             "Организация с именем '%s' уже существует";
+    private static final String NAME_LOCK_PREFIX = "org_name_";
     private static final String NAME_LOCK_BUSY =
             "Название '%s' сейчас редактируется другим пользователем. Повторите попытку позже.";
     private static final String CONCURRENT_MODIFICATION =
             "Операция не выполнена из-за одновременных изменений. Повторите попытку.";
-    private static final int ANALYTICS_STREAM_LIMIT = 200;
+    private static final String CURSOR_SORT_MISMATCH =
+            "Курсор относится к другой сортировке. Начните просмотр с первой страницы.";
+    private static final int ANALYTICS_PAGE_SIZE = 200;
+    private static final int TOP_TURNOVER_COUNT = 5;
+    private static final int TOP_TURNOVER_AVERAGE_COUNT = 10;
+    private static final Map<String, String> TEXT_FILTER_ATTRIBUTES = Map.of(
+            "name", "name",
+            "fullName", "fullName",
+            "officialStreet", "officialAddress.street",
+            "postalStreet", "postalAddress.street");
     private static final double MIN_COORDINATE_DISTANCE = 1d;
-    private static final double MIN_COORDINATE_DISTANCE_SQUARED =
-            MIN_COORDINATE_DISTANCE * MIN_COORDINATE_DISTANCE;
-    private static final int SIMILAR_NAME_DISTANCE_THRESHOLD = 3;
+    private static final int MAX_NEAREST_ORGANIZATIONS = 100;
 
     private static final Map<OrganizationType, LongRange> EMPLOYEE_CONSTRAINTS = Map.of(
             OrganizationType.COMMERCIAL, new LongRange(20L, 5000L),
@@ -80,68 +98,205 @@ public class OrganizationService {
     private final AddressRepository addressRepository;
     private final CoordinatesRepository coordinatesRepository;
     private final OrganizationEventPublisher eventPublisher;
-    private final TransactionTemplate cleanupTransaction;
-    private static final String ORPHAN_CLEANUP_LOCK = "orphan_cleanup";
+    private final OrganizationDataVersion dataVersion;
+    private final OrphanCleanupScheduler orphanCleanupScheduler;
     private final DatabaseLockService databaseLockService;
+    private final LocalNameLocks localNameLocks;
+    private final NameSimilarityService nameSimilarityService;
+    private final CoordinatesProximityService coordinatesProximityService;
+    private final TurnoverLeaderboard turnoverLeaderboard;
+    private final SerializableTransactionExecutor serializableExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrganizationService(OrganizationRepositories repositories,
+            OrganizationWriteGuards guards,
+            OrganizationWriteListeners listeners,
+            SerializableTransactionExecutor serializableExecutor,
+            PlatformTransactionManager transactionManager) {
+        this.organizationRepository = repositories.organizations();
+        this.addressRepository = repositories.addresses();
+        this.coordinatesRepository = repositories.coordinates();
+        this.eventPublisher = listeners.eventPublisher();
+        this.dataVersion = listeners.dataVersion();
+        this.orphanCleanupScheduler = listeners.orphanCleanup();
+        this.databaseLockService = guards.databaseLocks();
+        this.localNameLocks = guards.localNameLocks();
+        this.nameSimilarityService = guards.nameSimilarity();
+        this.coordinatesProximityService = guards.coordinatesProximity();
+        this.turnoverLeaderboard = listeners.turnoverLeaderboard();
+        this.serializableExecutor = serializableExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
-    public OrganizationService(OrganizationRepository organizationRepository,
-            AddressRepository addressRepository,
-            CoordinatesRepository coordinatesRepository,
-            OrganizationEventPublisher eventPublisher,
-            PlatformTransactionManager transactionManager,
-            DatabaseLockService databaseLockService) {
-        this.organizationRepository = organizationRepository;
-        this.addressRepository = addressRepository;
-        this.coordinatesRepository = coordinatesRepository;
-        this.eventPublisher = eventPublisher;
-        this.cleanupTransaction = new TransactionTemplate(transactionManager);
-        this.cleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-        this.databaseLockService = databaseLockService;
+    /** Version of the committed organization data; see {@link OrganizationDataVersion}. */
+    public long dataVersion() {
+        return dataVersion.current();
     }
 
+    @Transactional(readOnly = true)
     public Page<Organization> list(
             OrganizationFilter filter,
             Pageable pageable) {
         Objects.requireNonNull(filter, "filter");
-        if (filter.isEmpty()) {
-            return organizationRepository.findAll(pageable);
-        }
-        String field = filter.field().orElseThrow();
-        String value = filter.value().orElseThrow();
-        return switch (field) {
-            case "name" -> organizationRepository.findByName(value, pageable);
-            case "fullName" -> organizationRepository.findByFullName(value, pageable);
-            case "officialStreet" ->
-                    organizationRepository.findByOfficialAddressStreet(value, pageable);
-            case "postalStreet" ->
-                    organizationRepository.findByPostalAddressStreet(value, pageable);
-            case "type" -> {
-                OrganizationType type;
-                try {
-                    type = OrganizationType.valueOf(value);
-                } catch (IllegalArgumentException ex) {
-                    throw new ValidationException("Неизвестный тип организации: " + value);
-                }
-                yield organizationRepository.findByType(type, pageable);
+        return organizationRepository.findPage(filterSpecification(filter), pageable);
+    }
+
+    /**
+     * Same rows as {@link #list} for the requested page, without counting
+     * the total: the caller only learns whether another page follows.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Organization> listSlice(
+            OrganizationFilter filter,
+            Pageable pageable) {
+        Objects.requireNonNull(filter, "filter");
+        Sort.Order order = primaryOrder(pageable);
+        PageRequest request = PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                keysetSort(order));
+        return organizationRepository.findSlice(filterSpecification(filter), request);
+    }
+
+    /**
+     * Keyset page: the next {@code pageable.getPageSize()} rows after
+     * {@code cursor} (or from the start) in the order of
+     * {@code pageable.getSort()}, ties broken by id. The page number is
+     * ignored, and neither an offset nor a count is ever executed.
+     */
+    @Transactional(readOnly = true)
+    public OrganizationScroll scroll(
+            OrganizationFilter filter,
+            Pageable pageable,
+            String cursor) {
+        Objects.requireNonNull(filter, "filter");
+        Sort.Order order = primaryOrder(pageable);
+        OrganizationSortField field = OrganizationSortField.fromProperty(order.getProperty())
+                .orElseThrow(() -> new ValidationException(
+                        "Недопустимое поле сортировки: " + order.getProperty()));
+        Specification<Organization> spec = filterSpecification(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            OrganizationCursor position = OrganizationCursor.decode(cursor);
+            if (position.field() != field || position.direction() != order.getDirection()) {
+                throw new ValidationException(CURSOR_SORT_MISMATCH);
+            }
+            spec = spec.and(OrganizationSpecifications.after(
+                    field.property(),
+                    order.getDirection(),
+                    field.nullable(),
+                    position.value(),
+                    position.id()));
+        }
+        Slice<Organization> slice = organizationRepository.findSlice(
+                spec,
+                PageRequest.of(0, pageable.getPageSize(), keysetSort(order)));
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Organization last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new OrganizationCursor(
+                    field,
+                    order.getDirection(),
+                    field.valueOf(last),
+                    last.getId()).encode();
+        }
+        return new OrganizationScroll(slice, nextCursor);
+    }
+
+    private static Sort.Order primaryOrder(Pageable pageable) {
+        return pageable.getSort().stream()
+                .findFirst()
+                .orElse(Sort.Order.asc(OrganizationSortField.ID.property()));
+    }
+
+    private static Sort keysetSort(Sort.Order order) {
+        Sort sort = Sort.by(order);
+        if (OrganizationSortField.ID.property().equals(order.getProperty())) {
+            return sort;
+        }
+        return sort.and(Sort.by(order.getDirection(), OrganizationSortField.ID.property()));
+    }
+
+    private Specification<Organization> filterSpecification(OrganizationFilter filter) {
+        Specification<Organization> spec = OrganizationSpecifications.unrestricted();
+        for (OrganizationFilter.Condition condition : filter.conditions()) {
+            spec = spec.and(conditionSpecification(condition));
+        }
+        for (OrganizationFilter.Range range : filter.ranges()) {
+            spec = spec.and(rangeSpecification(range));
+        }
+        return spec;
+    }
+
+    private static Specification<Organization> conditionSpecification(OrganizationFilter.Condition condition) {
+        String value = condition.value();
+        if ("type".equals(condition.field())) {
+            if (condition.operator() != FilterOperator.EQ) {
+                throw new ValidationException(
+                        "Для поля type поддерживается только оператор " + FilterOperator.EQ.code() + ".");
             }
-            default -> organizationRepository.findAll(pageable);
+            return OrganizationSpecifications.equalTo("type", parseType(value));
+        }
+        String attribute = TEXT_FILTER_ATTRIBUTES.get(condition.field());
+        if (attribute == null) {
+            // unknown fields have always been ignored rather than rejected
+            return OrganizationSpecifications.unrestricted();
+        }
+        return switch (condition.operator()) {
+            case EQ -> OrganizationSpecifications.equalTo(attribute, value);
+            case PREFIX -> OrganizationSpecifications.startsWith(attribute, value);
+            case CONTAINS -> OrganizationSpecifications.contains(attribute, value);
+            case ILIKE -> OrganizationSpecifications.containsIgnoreCase(attribute, value);
         };
     }
 
-    public Optional<Organization> findById(Integer id) {
-        return organizationRepository.findById(id);
+    private static Specification<Organization> rangeSpecification(OrganizationFilter.Range range) {
+        return switch (range.field()) {
+            case "annualTurnover" -> OrganizationSpecifications.between(
+                    range.field(), parseBound(range, range.min(), Float::valueOf),
+                    parseBound(range, range.max(), Float::valueOf));
+            case "employeesCount" -> OrganizationSpecifications.between(
+                    range.field(), parseBound(range, range.min(), Long::valueOf),
+                    parseBound(range, range.max(), Long::valueOf));
+            case "rating" -> OrganizationSpecifications.between(
+                    range.field(), parseBound(range, range.min(), Double::valueOf),
+                    parseBound(range, range.max(), Double::valueOf));
+            default -> throw new ValidationException("Фильтр по диапазону недоступен для поля " + range.field());
+        };
     }
 
-    public List<Address> allAddresses() {
-        return addressRepository.findAll();
+    private static <T> T parseBound(
+            OrganizationFilter.Range range,
+            Optional<String> bound,
+            Function<String, T> parser) {
+        try {
+            return bound.map(parser).orElse(null);
+        } catch (NumberFormatException ex) {
+            throw new ValidationException(
+                    "Некорректная граница диапазона для поля " + range.field() + ": " + bound.orElseThrow());
+        }
+    }
+
+    private static OrganizationType parseType(String value) {
+        try {
+            return OrganizationType.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Неизвестный тип организации: " + value);
+        }
     }
 
-    public List<Coordinates> allCoordinates() {
-        return coordinatesRepository.findAll();
+    public Optional<Organization> findById(Integer id) {
+        return organizationRepository.findById(id);
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Organization create(OrganizationForm form) {
+        try (LocalNameLocks.Held ignored = holdNameLocally(form.getName())) {
+            return serializableExecutor.execute("organization.create", status -> createInTransaction(form));
+        } catch (ConcurrencyFailureException ex) {
+            throw new ValidationException(CONCURRENT_MODIFICATION);
+        }
+    }
+
+    private Organization createInTransaction(OrganizationForm form) {
         String targetName = form.getName();
         String normalizedName = normalizeName(targetName);
         acquireNameLock(targetName, normalizedName);
@@ -153,17 +308,26 @@ public class OrganizationService {
             validateBusinessRules(org, null);
             Organization saved = organizationRepository.save(org);
             organizationRepository.flush();
-            afterCommit(() -> eventPublisher.broadcast("created", saved.getId()));
+            nameSimilarityService.stage(saved.getId(), saved.getName(), saved.getFullName());
+            stageCoordinates(saved.getCoordinates());
+            TurnoverLeader leader = TurnoverLeader.of(saved);
+            afterCommit(() -> turnoverLeaderboard.put(leader));
+            OrganizationChange change = OrganizationChange.created(OrganizationRow.of(saved));
+            afterCommit(() -> publishChange(change));
             return saved;
         } catch (DataIntegrityViolationException ex) {
             throw new ValidationException(NAME_ALREADY_EXISTS.formatted(targetName));
-        } catch (ConcurrencyFailureException ex) {
-            throw new ValidationException(CONCURRENT_MODIFICATION);
         }
     }
 
-    @Transactional
     public Organization update(Integer id, OrganizationForm form) {
+        // the target name is held even when it does not change; the row lock serializes those updates anyway
+        try (LocalNameLocks.Held ignored = holdNameLocally(form.getName())) {
+            return transactionTemplate.execute(status -> updateInTransaction(id, form));
+        }
+    }
+
+    private Organization updateInTransaction(Integer id, OrganizationForm form) {
         Organization org = organizationRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException(
                         ORGANIZATION_NOT_FOUND));
@@ -174,14 +338,21 @@ public class OrganizationService {
             acquireNameLock(targetName, normalizedName);
         }
         ensureUniqueName(targetName, id);
+        OrphanCandidates previous = OrphanCandidates.of(org);
+        OrganizationRow previousRow = OrganizationRow.of(org);
 
         try {
             applyForm(org, form);
             validateBusinessRules(org, id);
             Organization saved = organizationRepository.save(org);
             organizationRepository.flush();
-            scheduleOrphanCleanup();
-            afterCommit(() -> eventPublisher.broadcast("updated", saved.getId()));
+            nameSimilarityService.stage(saved.getId(), saved.getName(), saved.getFullName());
+            stageCoordinates(saved.getCoordinates());
+            scheduleOrphanCleanup(previous.withoutReferencesFrom(saved));
+            TurnoverLeader leader = TurnoverLeader.of(saved);
+            afterCommit(() -> turnoverLeaderboard.put(leader));
+            OrganizationChange change = OrganizationChange.updated(previousRow, OrganizationRow.of(saved));
+            afterCommit(() -> publishChange(change));
             return saved;
         } catch (DataIntegrityViolationException ex) {
             throw new ValidationException(NAME_ALREADY_EXISTS.formatted(targetName));
@@ -195,10 +366,13 @@ public class OrganizationService {
         Organization org = organizationRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException(
                         ORGANIZATION_NOT_FOUND));
+        OrphanCandidates released = OrphanCandidates.of(org);
         organizationRepository.delete(org);
         organizationRepository.flush();
-        scheduleOrphanCleanup();
-        afterCommit(() -> eventPublisher.broadcast("deleted", id));
+        nameSimilarityService.stageRemoval(id);
+        scheduleOrphanCleanup(released);
+        afterCommit(() -> turnoverLeaderboard.remove(id));
+        afterCommit(() -> publishChange(OrganizationChange.deleted(id)));
     }
 
     private void validateBusinessRules(Organization org, Integer currentId) {
@@ -211,53 +385,36 @@ public class OrganizationService {
         if (coordinates == null) {
             return;
         }
-        long nearby = coordinatesRepository.countWithinDistance(
+        boolean occupied = coordinatesProximityService.hasNeighbourWithin(
                 coordinates.getX(),
                 coordinates.getY(),
-                MIN_COORDINATE_DISTANCE_SQUARED,
+                MIN_COORDINATE_DISTANCE,
                 coordinates.getId());
-        if (nearby > 0) {
+        if (occupied) {
             throw new ValidationException(
                     "Координаты указанного адреса находятся ближе чем на 1 у.е. "
                             + "к существующему адресу. Выберите другое расположение.");
         }
     }
 
-    private void validateNameSimilarity(Organization org, Integer currentId) {
-        List<NameCandidate> newNames = collectNameCandidates(
-                org.getName(),
-                org.getFullName());
-        if (newNames.isEmpty()) {
-            return;
-        }
-        List<OrganizationRepository.NameProjection> projections =
-                organizationRepository.findNamesExcludingId(currentId);
-        if (projections == null || projections.isEmpty()) {
-            return;
+    private void stageCoordinates(Coordinates coordinates) {
+        if (coordinates != null && coordinates.getId() != null) {
+            coordinatesProximityService.stage(
+                    coordinates.getId(),
+                    coordinates.getX(),
+                    coordinates.getY());
         }
-        List<NameCandidate> existingNames = new ArrayList<>();
-        for (OrganizationRepository.NameProjection projection : projections) {
-            existingNames.addAll(collectNameCandidates(
-                    projection.getName(),
-                    projection.getFullName()));
-        }
-        if (existingNames.isEmpty()) {
-            return;
-        }
-        for (NameCandidate newCandidate : newNames) {
-            for (NameCandidate existing : existingNames) {
-                int distance = levenshteinDistance(
-                        newCandidate.normalized(),
-                        existing.normalized());
-                if (distance < SIMILAR_NAME_DISTANCE_THRESHOLD) {
+    }
+
+    private void validateNameSimilarity(Organization org, Integer currentId) {
+        nameSimilarityService.findSimilar(org.getName(), org.getFullName(), currentId)
+                .ifPresent(similar -> {
                     throw new ValidationException(
-                            "Название '" + newCandidate.original()
+                            "Название '" + similar.candidate()
                                     + "' слишком похоже на уже существующее '"
-                                    + existing.original()
-                                    + "' (расстояние Левенштейна = " + distance + ")");
-                }
-            }
-        }
+                                    + similar.existing()
+                                    + "' (расстояние Левенштейна = " + similar.distance() + ")");
+                });
     }
 
     private void validateTypeSpecificConstraints(Organization org) {
@@ -296,26 +453,6 @@ public class OrganizationService {
         }
     }
 
-    private List<NameCandidate> collectNameCandidates(String... values) {
-        List<NameCandidate> result = new ArrayList<>();
-        if (values == null) {
-            return result;
-        }
-        for (String value : values) {
-            if (value == null) {
-                continue;
-            }
-            String trimmed = value.strip();
-            if (trimmed.isEmpty()) {
-                continue;
-            }
-            result.add(new NameCandidate(
-                    trimmed,
-                    trimmed.toUpperCase(Locale.ROOT)));
-        }
-        return result;
-    }
-
     private boolean startsWithIgnoreCase(String value, String prefix) {
         if (value == null || prefix == null) {
             return false;
@@ -332,39 +469,6 @@ public class OrganizationService {
         return String.format(Locale.ROOT, "%.2f", value);
     }
 
-    private static int levenshteinDistance(String left, String right) {
-        int lenLeft = left.length();
-        int lenRight = right.length();
-        if (lenLeft == 0) {
-            return lenRight;
-        }
-        if (lenRight == 0) {
-            return lenLeft;
-        }
-        int[] previous = new int[lenRight + 1];
-        int[] current = new int[lenRight + 1];
-        for (int j = 0; j <= lenRight; j++) {
-            previous[j] = j;
-        }
-        for (int i = 1; i <= lenLeft; i++) {
-            current[0] = i;
-            for (int j = 1; j <= lenRight; j++) {
-                int cost = left.charAt(i - 1) == right.charAt(j - 1)
-                        ? 0
-                        : 1;
-                current[j] = Math.min(
-                        Math.min(current[j - 1] + 1, previous[j] + 1),
-                        previous[j - 1] + cost);
-            }
-            int[] temp = previous;
-            previous = current;
-            current = temp;
-        }
-        return previous[lenRight];
-    }
-
-    private record NameCandidate(String original, String normalized) { }
-
     private record LongRange(long min, long max) {
         boolean contains(long value) {
             return value >= min && value <= max;
@@ -377,8 +481,20 @@ public class OrganizationService {
         }
     }
 
+    /**
+     * Queues writers of the same name on this node before they open a
+     * transaction; the database lock then settles races between nodes.
+     */
+    private LocalNameLocks.Held holdNameLocally(String name) {
+        LocalNameLocks.Held held = localNameLocks.tryAcquire(NAME_LOCK_PREFIX + normalizeName(name));
+        if (held == null) {
+            throw new ValidationException(NAME_LOCK_BUSY.formatted(name));
+        }
+        return held;
+    }
+
     private void acquireNameLock(String originalName, String normalizedName) {
-        if (!databaseLockService.tryAcquire("org_name_" + normalizedName)) {
+        if (!databaseLockService.tryAcquire(NAME_LOCK_PREFIX + normalizedName)) {
             throw new ValidationException(NAME_LOCK_BUSY.formatted(originalName));
         }
     }
@@ -415,29 +531,52 @@ public class OrganizationService {
         }
     }
 
-    private void scheduleOrphanCleanup() {
-        afterCommit(() -> cleanupTransaction.executeWithoutResult(this::cleanupOrphansInternal));
+    /** Moves the data version before clients hear about the change and reload. */
+    private void publishChange(OrganizationChange change) {
+        dataVersion.bump();
+        eventPublisher.broadcast(change);
     }
 
-    private void cleanupOrphansInternal(TransactionStatus status) {
-        if (!databaseLockService.tryAcquire(ORPHAN_CLEANUP_LOCK)) {
-            return;
-        }
-        if (!executeCleanup(addressRepository::deleteUnassigned, status)) {
-            return;
+    private void scheduleOrphanCleanup(OrphanCandidates candidates) {
+        if (!candidates.isEmpty()) {
+            afterCommit(() -> orphanCleanupScheduler.enqueue(candidates));
         }
-        executeCleanup(coordinatesRepository::deleteUnassigned, status);
     }
 
-    private boolean executeCleanup(Runnable cleanupAction, TransactionStatus status) {
-        try {
-            cleanupAction.run();
-            return true;
-        } catch (DataIntegrityViolationException ex) {
-            if (status != null) {
-                status.setRollbackOnly();
+    @Transactional(readOnly = true)
+    public List<NearbyOrganization> nearestOrganizations(int x, double y, int limit) {
+        if (limit < 1 || limit > MAX_NEAREST_ORGANIZATIONS) {
+            throw new ValidationException(
+                    "Количество результатов должно быть от 1 до " + MAX_NEAREST_ORGANIZATIONS + ".");
+        }
+        // orphaned coordinates have no organization, so widen the window until enough are found
+        int window = limit;
+        while (true) {
+            List<CoordinatesProximityService.NearbyCoordinates> nearby =
+                    coordinatesProximityService.nearest(x, y, window);
+            Map<Long, List<Organization>> byCoordinates = organizationRepository
+                    .findByCoordinatesIdInOrderById(
+                            nearby.stream().map(CoordinatesProximityService.NearbyCoordinates::id).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(org -> org.getCoordinates().getId()));
+            List<NearbyOrganization> result = new ArrayList<>(limit);
+            for (CoordinatesProximityService.NearbyCoordinates coordinates : nearby) {
+                for (Organization org : byCoordinates.getOrDefault(coordinates.id(), List.of())) {
+                    result.add(new NearbyOrganization(
+                            org.getId(),
+                            org.getName(),
+                            coordinates.x(),
+                            coordinates.y(),
+                            coordinates.distance()));
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
             }
-            return false;
+            if (nearby.size() < window) {
+                return result;
+            }
+            window *= 2;
         }
     }
 
@@ -445,38 +584,69 @@ public class OrganizationService {
         return organizationRepository.countByRating(rating);
     }
 
+    /**
+     * Organizations whose full name starts with {@code prefix}, ordered by
+     * full name and id, one page after {@code cursor} (or from the start).
+     */
     @Transactional(readOnly = true)
-    public List<Organization> fullNameStartsWith(String prefix) {
-        try (var stream = organizationRepository.streamByFullNameStartingWith(prefix)) {
-            return stream
-                    .limit(ANALYTICS_STREAM_LIMIT)
-                    .toList();
-        }
+    public FullNamePage fullNameStartsWith(String prefix, String cursor) {
+        OrganizationCursor position = fullNameCursor(cursor);
+        // every match sorts at or after its prefix, and the prefix itself may be a match
+        String fromName = position == null ? prefix : (String) position.value();
+        Integer afterId = position == null ? Integer.MIN_VALUE : position.id();
+        return fullNamePage(organizationRepository.findFullNamesLike(
+                OrganizationSpecifications.escapeLike(prefix) + "%",
+                fromName,
+                afterId,
+                PageRequest.of(0, ANALYTICS_PAGE_SIZE)));
     }
 
+    /** Organizations whose full name sorts after {@code value}, paged like {@link #fullNameStartsWith}. */
     @Transactional(readOnly = true)
-    public List<Organization> fullNameGreaterThan(String value) {
-        try (var stream = organizationRepository.streamByFullNameGreaterThan(value)) {
-            return stream
-                    .limit(ANALYTICS_STREAM_LIMIT)
-                    .toList();
+    public FullNamePage fullNameGreaterThan(String value, String cursor) {
+        OrganizationCursor position = fullNameCursor(cursor);
+        String fromName = position == null ? value : (String) position.value();
+        Integer afterId = position == null ? Integer.MAX_VALUE : position.id();
+        return fullNamePage(organizationRepository.findFullNamesGreaterThan(
+                value,
+                fromName,
+                afterId,
+                PageRequest.of(0, ANALYTICS_PAGE_SIZE)));
+    }
+
+    private static OrganizationCursor fullNameCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        OrganizationCursor position = OrganizationCursor.decode(cursor);
+        if (position.field() != OrganizationSortField.FULL_NAME
+                || position.direction() != Sort.Direction.ASC
+                || position.value() == null) {
+            throw new ValidationException(CURSOR_SORT_MISMATCH);
         }
+        return position;
     }
 
-    public List<Organization> top5ByTurnover() {
-        return organizationRepository.findTop5ByOrderByAnnualTurnoverDesc();
+    private static FullNamePage fullNamePage(Slice<OrganizationRepository.FullNameProjection> slice) {
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            OrganizationRepository.FullNameProjection last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new OrganizationCursor(
+                    OrganizationSortField.FULL_NAME,
+                    Sort.Direction.ASC,
+                    last.getFullName(),
+                    last.getId()).encode();
+        }
+        return new FullNamePage(slice.getContent(), nextCursor);
+    }
+
+    /** Served from {@link TurnoverLeaderboard}, which follows committed writes. */
+    public List<TurnoverLeader> top5ByTurnover() {
+        return turnoverLeaderboard.top(TOP_TURNOVER_COUNT);
     }
 
-    @Transactional(readOnly = true)
     public double averageEmployeesTop10ByTurnover() {
-        try (var top10 = organizationRepository.streamTop10ByOrderByAnnualTurnoverDesc()) {
-            return top10
-                    .mapToLong(orgValue -> Optional
-                            .ofNullable(orgValue.getEmployeesCount())
-                            .orElse(0L))
-                    .average()
-                    .orElse(0d);
-        }
+        return turnoverLeaderboard.averageEmployees(TOP_TURNOVER_AVERAGE_COUNT);
     }
 
     private void applyForm(Organization org, OrganizationForm form) {
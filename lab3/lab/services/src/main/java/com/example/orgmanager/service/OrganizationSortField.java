@@ -0,0 +1,60 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.model.Organization;
+import com.example.orgmanager.model.OrganizationType;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Properties the organization list may be sorted by, with what keyset
+ * pagination needs to know about each: how to read the key from a row, how
+ * to read it back from a cursor, and whether it can be NULL.
+ */
+public enum OrganizationSortField {
+    ID("id", Organization::getId, Integer::valueOf, false),
+    NAME("name", Organization::getName, value -> value, false),
+    FULL_NAME("fullName", Organization::getFullName, value -> value, false),
+    ANNUAL_TURNOVER("annualTurnover", Organization::getAnnualTurnover, Float::valueOf, false),
+    EMPLOYEES_COUNT("employeesCount", Organization::getEmployeesCount, Long::valueOf, false),
+    RATING("rating", Organization::getRating, Double::valueOf, false),
+    TYPE("type", Organization::getType, OrganizationType::valueOf, true);
+
+    private final String property;
+    private final Function<Organization, Comparable<?>> extractor;
+    private final Function<String, Comparable<?>> parser;
+    private final boolean nullable;
+
+    OrganizationSortField(
+            String property,
+            Function<Organization, Comparable<?>> extractor,
+            Function<String, Comparable<?>> parser,
+            boolean nullable) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+        this.nullable = nullable;
+    }
+
+    public static Optional<OrganizationSortField> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst();
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public boolean nullable() {
+        return nullable;
+    }
+
+    Comparable<?> valueOf(Organization org) {
+        return extractor.apply(org);
+    }
+
+    Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.service.lock.DatabaseLockService;
+import com.example.orgmanager.service.lock.LocalNameLocks;
+import com.example.orgmanager.service.similarity.NameSimilarityService;
+import com.example.orgmanager.service.spatial.CoordinatesProximityService;
+import org.springframework.stereotype.Component;
+
+/**
+ * What {@link OrganizationService} checks before it writes: the name locks
+ * on this node and in the database, and the similar-name and
+ * coordinate-distance rules.
+ */
+@Component
+public record OrganizationWriteGuards(
+        LocalNameLocks localNameLocks,
+        DatabaseLockService databaseLocks,
+        NameSimilarityService nameSimilarity,
+        CoordinatesProximityService coordinatesProximity) {
+}
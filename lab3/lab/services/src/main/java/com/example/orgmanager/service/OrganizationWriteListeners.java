@@ -0,0 +1,17 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.service.analytics.TurnoverLeaderboard;
+import org.springframework.stereotype.Component;
+
+/**
+ * What {@link OrganizationService} tells about a committed write: the data
+ * version and the open list pages, the turnover leaderboard and the orphan
+ * cleanup queue.
+ */
+@Component
+public record OrganizationWriteListeners(
+        OrganizationDataVersion dataVersion,
+        OrganizationEventPublisher eventPublisher,
+        TurnoverLeaderboard turnoverLeaderboard,
+        OrphanCleanupScheduler orphanCleanup) {
+}
@@ -0,0 +1,52 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.model.Address;
+import com.example.orgmanager.model.Coordinates;
+import com.example.orgmanager.model.Organization;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Addresses and coordinates an organization stopped referencing. They are
+ * only candidates: another organization may still point at them, which the
+ * cleanup checks before deleting anything.
+ */
+record OrphanCandidates(Set<Long> addressIds, Set<Long> coordinatesIds) {
+    OrphanCandidates {
+        addressIds = Set.copyOf(addressIds);
+        coordinatesIds = Set.copyOf(coordinatesIds);
+    }
+
+    /** Everything {@code org} references right now. */
+    static OrphanCandidates of(Organization org) {
+        Set<Long> addresses = new HashSet<>();
+        addId(addresses, org.getOfficialAddress());
+        addId(addresses, org.getPostalAddress());
+        Set<Long> coordinates = new HashSet<>();
+        Coordinates current = org.getCoordinates();
+        if (current != null && current.getId() != null) {
+            coordinates.add(current.getId());
+        }
+        return new OrphanCandidates(addresses, coordinates);
+    }
+
+    /** These candidates minus whatever {@code org} still references. */
+    OrphanCandidates withoutReferencesFrom(Organization org) {
+        OrphanCandidates kept = of(org);
+        Set<Long> addresses = new HashSet<>(addressIds);
+        addresses.removeAll(kept.addressIds());
+        Set<Long> coordinates = new HashSet<>(coordinatesIds);
+        coordinates.removeAll(kept.coordinatesIds());
+        return new OrphanCandidates(addresses, coordinates);
+    }
+
+    boolean isEmpty() {
+        return addressIds.isEmpty() && coordinatesIds.isEmpty();
+    }
+
+    private static void addId(Set<Long> ids, Address address) {
+        if (address != null && address.getId() != null) {
+            ids.add(address.getId());
+        }
+    }
+}
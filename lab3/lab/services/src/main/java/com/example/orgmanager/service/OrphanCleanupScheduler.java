@@ -0,0 +1,244 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.repository.AddressRepository;
+import com.example.orgmanager.repository.CoordinatesRepository;
+import com.example.orgmanager.service.lock.DatabaseLockService;
+import com.example.orgmanager.service.spatial.CoordinatesProximityService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Collects addresses and coordinates that committed writes stopped
+ * referencing and deletes the real orphans among them in the background.
+ * A burst of edits therefore costs one cleanup transaction per batch instead
+ * of one per write. The queue is drained every interval, or earlier once it
+ * holds a full batch. Candidates that could not be processed (lock held by
+ * another node, conflicting write) stay queued for the next run.
+ *
+ * <p>The queue lives only in memory, so a periodic full sweep runs the
+ * table-wide orphan check as a fallback for candidates lost in a crash. All
+ * of it runs on a worker thread of its own: waiting for the cleanup lock
+ * must not hold up the shared Spring scheduler.
+ */
+@Component
+public class OrphanCleanupScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrphanCleanupScheduler.class);
+    private static final String ORPHAN_CLEANUP_LOCK = "orphan_cleanup";
+
+    private final AddressRepository addressRepository;
+    private final CoordinatesRepository coordinatesRepository;
+    private final DatabaseLockService databaseLockService;
+    private final CoordinatesProximityService coordinatesProximityService;
+    private final ScheduledExecutorService worker;
+    private final TransactionTemplate cleanupTransaction;
+    private final int batchSize;
+    private final long intervalMs;
+    private final long sweepIntervalMs;
+
+    private final Set<Long> addressIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> coordinatesIds = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicBoolean earlyDrainScheduled = new AtomicBoolean();
+    private final AtomicLong lastRunNanos = new AtomicLong();
+    private final Counter deletedAddresses;
+    private final Counter deletedCoordinates;
+
+    @Autowired
+    public OrphanCleanupScheduler(
+            OrganizationRepositories repositories,
+            DatabaseLockService databaseLockService,
+            CoordinatesProximityService coordinatesProximityService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            OrphanCleanupSettings settings) {
+        this(repositories, databaseLockService, coordinatesProximityService, transactionManager,
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("orphan-cleanup").daemon().factory()),
+                meterRegistry, settings);
+    }
+
+    OrphanCleanupScheduler(
+            OrganizationRepositories repositories,
+            DatabaseLockService databaseLockService,
+            CoordinatesProximityService coordinatesProximityService,
+            PlatformTransactionManager transactionManager,
+            ScheduledExecutorService worker,
+            MeterRegistry meterRegistry,
+            OrphanCleanupSettings settings) {
+        this.addressRepository = repositories.addresses();
+        this.coordinatesRepository = repositories.coordinates();
+        this.databaseLockService = databaseLockService;
+        this.coordinatesProximityService = coordinatesProximityService;
+        this.worker = worker;
+        this.cleanupTransaction = new TransactionTemplate(transactionManager);
+        this.cleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = Math.max(1, settings.batchSize());
+        this.intervalMs = settings.intervalMs();
+        this.sweepIntervalMs = settings.sweepIntervalMs();
+        Gauge.builder("app.orphan-cleanup.queue", this, OrphanCleanupScheduler::queueDepth)
+                .description("Candidate orphan rows waiting for the cleanup worker")
+                .register(meterRegistry);
+        TimeGauge.builder("app.orphan-cleanup.last-run", lastRunNanos, TimeUnit.NANOSECONDS, AtomicLong::get)
+                .description("Duration of the most recent cleanup run")
+                .register(meterRegistry);
+        this.deletedAddresses = Counter.builder("app.orphan-cleanup.deleted")
+                .description("Orphan rows deleted by the cleanup worker")
+                .tag("kind", "address")
+                .register(meterRegistry);
+        this.deletedCoordinates = Counter.builder("app.orphan-cleanup.deleted")
+                .description("Orphan rows deleted by the cleanup worker")
+                .tag("kind", "coordinates")
+                .register(meterRegistry);
+    }
+
+    /** Drains every interval; the first sweep runs right away to pick up what a previous process left. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.scheduleWithFixedDelay(logged("drain", this::drain), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        if (sweepIntervalMs > 0) {
+            worker.scheduleWithFixedDelay(logged("sweep", this::sweep), 0, sweepIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void enqueue(OrphanCandidates candidates) {
+        addressIds.addAll(candidates.addressIds());
+        coordinatesIds.addAll(candidates.coordinatesIds());
+        if (queueDepth() >= batchSize && earlyDrainScheduled.compareAndSet(false, true)) {
+            worker.execute(logged("drain", this::drain));
+        }
+    }
+
+    public int queueDepth() {
+        return addressIds.size() + coordinatesIds.size();
+    }
+
+    /**
+     * Processes queued candidates batch by batch until the queue is empty or
+     * a batch has to be put back. Concurrent callers run one after another.
+     */
+    public void drain() {
+        earlyDrainScheduled.set(false);
+        drainLock.lock();
+        try {
+            long started = System.nanoTime();
+            boolean progressed = true;
+            while (progressed && queueDepth() > 0) {
+                progressed = runBatch(take(addressIds), take(coordinatesIds));
+            }
+            lastRunNanos.set(System.nanoTime() - started);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes every address no organization references with the original
+     * table-wide query and queues every such coordinates row, then drains.
+     * Coordinates go through the queue so the proximity grid drops them too.
+     */
+    public void sweep() {
+        try {
+            cleanupTransaction.executeWithoutResult(status -> {
+                if (!databaseLockService.tryAcquire(ORPHAN_CLEANUP_LOCK)) {
+                    return;
+                }
+                int addresses = addressRepository.deleteUnassigned();
+                List<Long> coordinates = coordinatesRepository.findUnassignedIds();
+                deletedAddresses.increment(addresses);
+                coordinatesIds.addAll(coordinates);
+                if (addresses > 0 || !coordinates.isEmpty()) {
+                    LOGGER.info("Orphan sweep found {} addresses and {} coordinates missed by the queue",
+                            addresses, coordinates.size());
+                }
+            });
+        } catch (DataAccessException | TransactionException ex) {
+            LOGGER.debug("Orphan sweep failed: {}", ex.getMessage());
+        }
+        drain();
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        worker.shutdown();
+        drain();
+    }
+
+    private boolean runBatch(List<Long> addresses, List<Long> coordinates) {
+        boolean completed;
+        try {
+            completed = Boolean.TRUE.equals(cleanupTransaction.execute(status -> {
+                if (!databaseLockService.tryAcquire(ORPHAN_CLEANUP_LOCK)) {
+                    return false;
+                }
+                if (!addresses.isEmpty()) {
+                    deletedAddresses.increment(addressRepository.deleteUnassignedIn(addresses));
+                }
+                if (!coordinates.isEmpty()) {
+                    // collect the ids first so the proximity grid drops exactly the deleted rows
+                    List<Long> orphaned = coordinatesRepository.findUnassignedIdsForUpdate(coordinates);
+                    if (!orphaned.isEmpty()) {
+                        coordinatesRepository.deleteAllByIdInBatch(orphaned);
+                        coordinatesProximityService.stageRemoval(orphaned);
+                        deletedCoordinates.increment(orphaned.size());
+                    }
+                }
+                return true;
+            }));
+        } catch (DataAccessException | TransactionException ex) {
+            // e.g. a row got referenced again mid-run; the next run re-checks it
+            LOGGER.debug("Orphan cleanup batch failed: {}", ex.getMessage());
+            completed = false;
+        }
+        if (!completed) {
+            addressIds.addAll(addresses);
+            coordinatesIds.addAll(coordinates);
+        }
+        return completed;
+    }
+
+    /** A periodic task that throws is never run again, so failures are only logged. */
+    private static Runnable logged(String task, Runnable action) {
+        return () -> {
+            try {
+                action.run();
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Orphan cleanup {} failed", task, ex);
+            }
+        };
+    }
+
+    private List<Long> take(Set<Long> queue) {
+        List<Long> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        Iterator<Long> iterator = queue.iterator();
+        while (batch.size() < batchSize && iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.orgmanager.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code app.orphan-cleanup.*}: candidates per cleanup transaction, and how
+ * often {@link OrphanCleanupScheduler} drains its queue and runs the full
+ * sweep ({@code 0} turns the sweep off).
+ */
+@ConfigurationProperties("app.orphan-cleanup")
+public record OrphanCleanupSettings(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1000") long intervalMs,
+        @DefaultValue("3600000") long sweepIntervalMs) {
+}
@@ -0,0 +1,21 @@
+package com.example.orgmanager.service;
+
+import com.example.orgmanager.service.OrganizationEventPublisher.OverflowPolicy;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code app.sse.*}: how {@link OrganizationEventPublisher} keeps the open
+ * event streams alive, how far a subscriber may fall behind and what
+ * happens then, and how many sent windows it keeps for resumed streams.
+ */
+@ConfigurationProperties("app.sse")
+public record SseSettings(
+        @DefaultValue("false") boolean heartbeatEnabled,
+        @DefaultValue("15000") long heartbeatIntervalMs,
+        @DefaultValue("64") int queueCapacity,
+        @DefaultValue("DROP_OLDEST") OverflowPolicy overflowPolicy,
+        @DefaultValue("150ms") Duration coalesceWindow,
+        @DefaultValue("256") int replayCapacity) {
+}
@@ -0,0 +1,28 @@
+package com.example.orgmanager.service.analytics;
+
+import com.example.orgmanager.service.FullNamePage;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Results of the analytics page panels. A panel that was not requested or
+ * did not finish in time is {@code null}; the latter is also listed in
+ * {@code timedOut}. {@code timings} holds how long each panel that ran took,
+ * in the order they were started.
+ */
+public record AnalyticsDashboard(
+        Long ratingCount,
+        FullNamePage startsWith,
+        FullNamePage fullNameGreaterThan,
+        List<TurnoverLeader> top5ByTurnover,
+        Double averageEmployeesTop10,
+        Map<String, Duration> timings,
+        Set<String> timedOut) {
+    public static final String RATING_COUNT = "ratingCount";
+    public static final String STARTS_WITH = "startsWith";
+    public static final String FULL_NAME_GREATER_THAN = "fullNameGt";
+    public static final String TOP5_BY_TURNOVER = "top5";
+    public static final String AVERAGE_EMPLOYEES_TOP10 = "avgTop10Employees";
+}
@@ -0,0 +1,13 @@
+package com.example.orgmanager.service.analytics;
+
+/**
+ * Inputs of the analytics page; a {@code null} or blank search leaves its
+ * panel empty.
+ */
+public record AnalyticsQuery(
+        Double ratingEq,
+        String startsWith,
+        String startsWithCursor,
+        String fullNameGt,
+        String fullNameGtCursor) {
+}
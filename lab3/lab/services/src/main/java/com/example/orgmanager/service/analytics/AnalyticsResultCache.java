@@ -0,0 +1,181 @@
+package com.example.orgmanager.service.analytics;
+
+import com.example.orgmanager.repository.OrganizationRepository;
+import com.example.orgmanager.service.FullNamePage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Results of the analytics database queries, keyed by query and arguments.
+ * Entries belong to one data version, which moves with every created,
+ * updated or deleted event: the first lookup after such an event drops them
+ * all. Within a version an entry lives for at most the TTL, and the least
+ * recently used ones go first once the cache is full.
+ */
+@Component
+public class AnalyticsResultCache {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    // rough retained sizes on a 64-bit JVM with compressed references
+    private static final long OBJECT_OVERHEAD = 16;
+    private static final long REFERENCE_SIZE = 4;
+    private static final long BOXED_SIZE = 16;
+    private static final long STRING_OVERHEAD = 40;
+    private static final long COLLECTION_OVERHEAD = 40;
+    private static final long ENTRY_OVERHEAD = 64;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Key, Cached> entries;
+    private long version = Long.MIN_VALUE;
+    private long estimatedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public AnalyticsResultCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.cache.max-entries:500}") int maxEntries,
+            @Value("${app.analytics.cache.ttl:60s}") Duration ttl) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        Gauge.builder("app.analytics.cache.size", this, AnalyticsResultCache::size)
+                .description("Analytics results held for the current data version")
+                .register(meterRegistry);
+        Gauge.builder("app.analytics.cache.memory", this, AnalyticsResultCache::estimatedBytes)
+                .description("Estimated heap retained by the cached analytics results")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("app.analytics.cache.hit-ratio", this, AnalyticsResultCache::hitRatio)
+                .description("Share of analytics queries answered from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The result of {@code query} with {@code arguments} at
+     * {@code dataVersion}, or {@code null} if it has to be loaded.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T lookup(String query, List<?> arguments, long dataVersion) {
+        Key key = new Key(query, arguments);
+        synchronized (entries) {
+            if (dataVersion != version) {
+                if (dataVersion > version) {
+                    clear();
+                    version = dataVersion;
+                }
+                misses.increment();
+                return null;
+            }
+            Cached cached = entries.get(key);
+            if (cached == null || System.nanoTime() - cached.loadedAt() >= ttlNanos) {
+                if (cached != null) {
+                    remove(key);
+                }
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return (T) cached.value();
+        }
+    }
+
+    /** Stores a result loaded at {@code dataVersion}; one from an older version is dropped. */
+    public void put(String query, List<?> arguments, long dataVersion, Object value) {
+        Key key = new Key(query, arguments);
+        long bytes = ENTRY_OVERHEAD + estimate(query) + estimate(arguments) + estimate(value);
+        synchronized (entries) {
+            if (dataVersion != version) {
+                return;
+            }
+            remove(key);
+            entries.put(key, new Cached(value, bytes, System.nanoTime()));
+            estimatedBytes += bytes;
+            Iterator<Cached> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries) {
+                estimatedBytes -= eldest.next().bytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long estimatedBytes() {
+        synchronized (entries) {
+            return estimatedBytes;
+        }
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0d : hits.count() / total;
+    }
+
+    private void remove(Key key) {
+        Cached removed = entries.remove(key);
+        if (removed != null) {
+            estimatedBytes -= removed.bytes();
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        estimatedBytes = 0;
+    }
+
+    private static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return STRING_OVERHEAD + 2L * text.length();
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return BOXED_SIZE;
+        }
+        if (value instanceof Collection<?> items) {
+            long total = COLLECTION_OVERHEAD;
+            for (Object item : items) {
+                total += REFERENCE_SIZE + estimate(item);
+            }
+            return total;
+        }
+        if (value instanceof FullNamePage page) {
+            return OBJECT_OVERHEAD + estimate(page.items()) + estimate(page.nextCursor());
+        }
+        if (value instanceof OrganizationRepository.FullNameProjection row) {
+            return OBJECT_OVERHEAD + estimate(row.getId()) + estimate(row.getFullName());
+        }
+        return OBJECT_OVERHEAD;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.analytics.cache.requests")
+                .description("Analytics query lookups by whether the cache had the result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Key(String query, List<?> arguments) {
+    }
+
+    private record Cached(Object value, long bytes, long loadedAt) {
+    }
+}
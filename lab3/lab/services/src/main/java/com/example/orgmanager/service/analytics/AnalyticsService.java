@@ -0,0 +1,224 @@
+package com.example.orgmanager.service.analytics;
+
+import com.example.orgmanager.service.FullNamePage;
+import com.example.orgmanager.service.OrganizationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Loads the analytics page. The database panels are independent, so they
+ * run at the same time on virtual threads, each in its own read-only
+ * transaction, and the page waits for the slowest one instead of their sum.
+ * A shared semaphore bounds how many of them hold a connection at once
+ * across all requests. Every panel gets the same deadline; one that misses
+ * it is cancelled, its statement is cut by the transaction timeout, and the
+ * page is shown without it. The turnover panels are answered from memory on
+ * the calling thread. Database results are looked up in
+ * {@link AnalyticsResultCache} first; a hit never takes a connection.
+ */
+@Service
+public class AnalyticsService {
+    private final OrganizationService organizationService;
+    private final AnalyticsResultCache resultCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore permits;
+    private final long timeoutNanos;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("analytics-", 0).factory());
+
+    public AnalyticsService(
+            OrganizationService organizationService,
+            AnalyticsResultCache resultCache,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.max-concurrent-queries:8}") int maxConcurrentQueries,
+            @Value("${app.analytics.query-timeout:2s}") Duration queryTimeout) {
+        this.organizationService = organizationService;
+        this.resultCache = resultCache;
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(Math.max(1, maxConcurrentQueries));
+        this.timeoutNanos = queryTimeout.toNanos();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // whole seconds only; the statement is cancelled at most one second after the page gave up on it
+        this.readOnlyTransaction.setTimeout((int) Math.max(1,
+                TimeUnit.NANOSECONDS.toSeconds(timeoutNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+    }
+
+    public AnalyticsDashboard load(AnalyticsQuery query) {
+        Fanout fanout = new Fanout(System.nanoTime() + timeoutNanos, organizationService.dataVersion());
+        try {
+            Panel<Long> ratingCount = query.ratingEq() == null ? null : fanout.submit(
+                    AnalyticsDashboard.RATING_COUNT,
+                    Arrays.asList(query.ratingEq()),
+                    () -> organizationService.countByRatingEquals(query.ratingEq()));
+            Panel<FullNamePage> startsWith = isBlank(query.startsWith()) ? null : fanout.submit(
+                    AnalyticsDashboard.STARTS_WITH,
+                    Arrays.asList(query.startsWith(), query.startsWithCursor()),
+                    () -> organizationService.fullNameStartsWith(query.startsWith(), query.startsWithCursor()));
+            Panel<FullNamePage> greaterThan = isBlank(query.fullNameGt()) ? null : fanout.submit(
+                    AnalyticsDashboard.FULL_NAME_GREATER_THAN,
+                    Arrays.asList(query.fullNameGt(), query.fullNameGtCursor()),
+                    () -> organizationService.fullNameGreaterThan(query.fullNameGt(), query.fullNameGtCursor()));
+            List<TurnoverLeader> top5 = fanout.inline(
+                    AnalyticsDashboard.TOP5_BY_TURNOVER, organizationService::top5ByTurnover);
+            Double averageEmployees = fanout.inline(
+                    AnalyticsDashboard.AVERAGE_EMPLOYEES_TOP10, organizationService::averageEmployeesTop10ByTurnover);
+            return new AnalyticsDashboard(
+                    fanout.await(ratingCount),
+                    fanout.await(startsWith),
+                    fanout.await(greaterThan),
+                    top5,
+                    averageEmployees,
+                    Collections.unmodifiableMap(fanout.timings),
+                    Collections.unmodifiableSet(fanout.timedOut));
+        } finally {
+            fanout.cancelRemaining();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private void record(String panel, String outcome, long nanos) {
+        Timer.builder("app.analytics.query")
+                .description("Time spent on one analytics page panel")
+                .tag("panel", panel)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** The panels of one page load. Only the request thread touches the maps. */
+    private final class Fanout {
+        private final long deadline;
+        /** Read before any query runs, so a result is never filed under a newer version than it saw. */
+        private final long dataVersion;
+        private final Map<String, Duration> timings = new LinkedHashMap<>();
+        private final Set<String> timedOut = new LinkedHashSet<>();
+        private final List<Panel<?>> submitted = new ArrayList<>();
+
+        Fanout(long deadline, long dataVersion) {
+            this.deadline = deadline;
+            this.dataVersion = dataVersion;
+        }
+
+        <T> Panel<T> submit(String name, List<?> arguments, Supplier<T> query) {
+            Panel<T> panel = new Panel<>(name);
+            long lookedUp = System.nanoTime();
+            T cached = resultCache.lookup(name, arguments, dataVersion);
+            if (cached != null) {
+                panel.cached = true;
+                panel.elapsedNanos = System.nanoTime() - lookedUp;
+                panel.future = CompletableFuture.completedFuture(cached);
+                return panel;
+            }
+            panel.future = executor.submit(() -> {
+                permits.acquire();
+                try {
+                    long started = System.nanoTime();
+                    try {
+                        T result = readOnlyTransaction.execute(status -> query.get());
+                        // kept even when the page has stopped waiting, so the next visit gets it
+                        resultCache.put(name, arguments, dataVersion, result);
+                        return result;
+                    } finally {
+                        panel.elapsedNanos = System.nanoTime() - started;
+                    }
+                } finally {
+                    permits.release();
+                }
+            });
+            submitted.add(panel);
+            return panel;
+        }
+
+        <T> T inline(String name, Supplier<T> query) {
+            long started = System.nanoTime();
+            T result = query.get();
+            finished(name, "success", System.nanoTime() - started);
+            return result;
+        }
+
+        <T> T await(Panel<T> panel) {
+            if (panel == null) {
+                return null;
+            }
+            try {
+                T result = panel.future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                finished(panel.name, panel.cached ? "cached" : "success", panel.elapsedNanos);
+                return result;
+            } catch (TimeoutException | CancellationException ex) {
+                panel.future.cancel(true);
+                timedOut.add(panel.name);
+                finished(panel.name, "timeout", timeoutNanos);
+                return null;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading analytics", ex);
+            } catch (ExecutionException ex) {
+                finished(panel.name, "error", panel.elapsedNanos);
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (ex.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+
+        void cancelRemaining() {
+            for (Panel<?> panel : submitted) {
+                panel.future.cancel(true);
+            }
+        }
+
+        private void finished(String name, String outcome, long nanos) {
+            timings.put(name, Duration.ofNanos(nanos));
+            record(name, outcome, nanos);
+        }
+    }
+
+    private static final class Panel<T> {
+        private final String name;
+        private Future<T> future;
+        private boolean cached;
+        private volatile long elapsedNanos;
+
+        Panel(String name) {
+            this.name = name;
+        }
+    }
+}
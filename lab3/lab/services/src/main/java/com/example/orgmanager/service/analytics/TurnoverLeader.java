@@ -0,0 +1,31 @@
+package com.example.orgmanager.service.analytics;
+
+import com.example.orgmanager.model.Organization;
+import com.example.orgmanager.repository.OrganizationRepository;
+import java.util.Comparator;
+
+/**
+ * What the turnover analytics need of one organization. Ranked by turnover,
+ * highest first, with the id breaking ties the same way the SQL does.
+ */
+public record TurnoverLeader(Integer id, String name, float annualTurnover, long employeesCount) {
+    public static final Comparator<TurnoverLeader> RANKING = Comparator
+            .comparingDouble(TurnoverLeader::annualTurnover).reversed()
+            .thenComparing(TurnoverLeader::id);
+
+    public static TurnoverLeader of(Organization org) {
+        return new TurnoverLeader(
+                org.getId(),
+                org.getName(),
+                org.getAnnualTurnover(),
+                org.getEmployeesCount() == null ? 0L : org.getEmployeesCount());
+    }
+
+    static TurnoverLeader from(OrganizationRepository.TurnoverProjection row) {
+        return new TurnoverLeader(
+                row.getId(),
+                row.getName(),
+                row.getAnnualTurnover(),
+                row.getEmployeesCount() == null ? 0L : row.getEmployeesCount());
+    }
+}
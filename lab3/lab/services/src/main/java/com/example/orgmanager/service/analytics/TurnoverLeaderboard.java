@@ -0,0 +1,283 @@
+package com.example.orgmanager.service.analytics;
+
+import com.example.orgmanager.repository.OrganizationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * The organizations with the highest annual turnover, kept in memory so the
+ * analytics page does not query the table on every visit. The set always
+ * holds an exact prefix of the SQL ranking: committed writes are applied in
+ * place, and a row that leaves the prefix is not replaced until the next
+ * reload, which happens once fewer than {@link #GUARANTEED_DEPTH} rows are
+ * left. After-commit hooks of two transactions may run in the opposite order
+ * of their commits, so the set is also rebuilt from the table periodically.
+ */
+@Service
+public class TurnoverLeaderboard {
+    /** Deepest ranking callers may ask for; the analytics page needs the top 10. */
+    public static final int GUARANTEED_DEPTH = 10;
+
+    private final OrganizationRepository organizationRepository;
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final NavigableSet<TurnoverLeader> leaders = new TreeSet<>(TurnoverLeader.RANKING);
+    private final Map<Integer, TurnoverLeader> byId = new HashMap<>();
+    /** Whether the set holds every organization, so a row ranked last may still be added. */
+    private boolean exhaustive;
+    /** Changes committed while a reload reads the table; they are applied on top of what it read. */
+    private List<Change> replay;
+    private volatile boolean loaded;
+
+    private final Counter consistentChecks;
+    private final Counter driftChecks;
+
+    public TurnoverLeaderboard(
+            OrganizationRepository organizationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.turnover-capacity:100}") int capacity) {
+        this.organizationRepository = organizationRepository;
+        this.capacity = Math.max(GUARANTEED_DEPTH, capacity);
+        Gauge.builder("app.analytics.turnover-leaders.size", this, TurnoverLeaderboard::size)
+                .description("Organizations held by the in-memory turnover ranking")
+                .register(meterRegistry);
+        this.consistentChecks = checks(meterRegistry, "consistent");
+        this.driftChecks = checks(meterRegistry, "drift");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    /** Up to {@code limit} organizations with the highest turnover, highest first. */
+    public List<TurnoverLeader> top(int limit) {
+        checkDepth(limit);
+        return read(ranking -> ranking.stream().limit(limit).toList());
+    }
+
+    /** Average employees count of the top {@code limit} organizations, 0 without any. */
+    public double averageEmployees(int limit) {
+        checkDepth(limit);
+        return read(ranking -> ranking.stream()
+                .limit(limit)
+                .mapToLong(TurnoverLeader::employeesCount)
+                .average()
+                .orElse(0d));
+    }
+
+    /** Applies a committed insert or update. */
+    public void put(TurnoverLeader leader) {
+        change(new Change(leader.id(), leader));
+    }
+
+    /** Applies a committed delete. */
+    public void remove(Integer id) {
+        change(new Change(id, null));
+    }
+
+    /**
+     * Compares the ranking with the table. A write committed while the query
+     * runs can make a consistent ranking look drifted for one check.
+     */
+    public boolean verify() {
+        ensureLoaded();
+        Snapshot expected = query();
+        lock.readLock().lock();
+        try {
+            return record(matches(expected));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Replaces the ranking with a fresh read of the table, counting whether it had drifted. */
+    @Scheduled(
+            fixedDelayString = "${app.analytics.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.analytics.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        reloadLock.lock();
+        try {
+            reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return leaders.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T read(Function<NavigableSet<TurnoverLeader>, T> reader) {
+        while (true) {
+            ensureLoaded();
+            lock.readLock().lock();
+            try {
+                // a delete may have emptied the prefix between the two locks
+                if (loaded) {
+                    return reader.apply(leaders);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        reloadLock.lock();
+        try {
+            if (!loaded) {
+                reload();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reload() {
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Snapshot fresh;
+        try {
+            fresh = query();
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+        lock.writeLock().lock();
+        try {
+            // with writes in between the old ranking cannot be compared to this read
+            if (loaded && replay.isEmpty()) {
+                record(matches(fresh));
+            }
+            leaders.clear();
+            byId.clear();
+            for (TurnoverLeader leader : fresh.leaders()) {
+                leaders.add(leader);
+                byId.put(leader.id(), leader);
+            }
+            exhaustive = fresh.exhaustive();
+            loaded = true;
+            replay.forEach(this::apply);
+            replay = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Snapshot query() {
+        // one row past the capacity tells whether the table fits entirely
+        List<TurnoverLeader> rows = organizationRepository
+                .findTurnoverLeaders(PageRequest.of(0, capacity + 1))
+                .stream()
+                .map(TurnoverLeader::from)
+                .toList();
+        return rows.size() > capacity
+                ? new Snapshot(rows.subList(0, capacity), false)
+                : new Snapshot(rows, true);
+    }
+
+    private boolean matches(Snapshot expected) {
+        List<TurnoverLeader> current = List.copyOf(leaders);
+        if (exhaustive || expected.exhaustive()) {
+            return exhaustive == expected.exhaustive() && current.equals(expected.leaders());
+        }
+        return current.size() <= expected.leaders().size()
+                && current.equals(expected.leaders().subList(0, current.size()));
+    }
+
+    private boolean record(boolean consistent) {
+        (consistent ? consistentChecks : driftChecks).increment();
+        return consistent;
+    }
+
+    private void change(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) {
+                replay.add(change);
+            }
+            // before the first load there is nothing to update, the load reads committed state
+            if (loaded) {
+                apply(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Change change) {
+        TurnoverLeader previous = byId.remove(change.id());
+        if (previous != null) {
+            leaders.remove(previous);
+        }
+        TurnoverLeader leader = change.leader();
+        // below the last known row it might rank after rows that were never loaded
+        if (leader != null && (exhaustive
+                || (!leaders.isEmpty() && TurnoverLeader.RANKING.compare(leader, leaders.last()) < 0))) {
+            leaders.add(leader);
+            byId.put(leader.id(), leader);
+            if (leaders.size() > capacity) {
+                byId.remove(leaders.pollLast().id());
+                exhaustive = false;
+            }
+        }
+        if (!exhaustive && leaders.size() < GUARANTEED_DEPTH) {
+            loaded = false;
+        }
+    }
+
+    private static void checkDepth(int limit) {
+        if (limit < 0 || limit > GUARANTEED_DEPTH) {
+            throw new IllegalArgumentException("Ranking depth must be between 0 and " + GUARANTEED_DEPTH);
+        }
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.analytics.turnover-leaders.checks")
+                .description("Comparisons of the in-memory turnover ranking with the table")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Change(Integer id, TurnoverLeader leader) {
+    }
+
+    private record Snapshot(List<TurnoverLeader> leaders, boolean exhaustive) {
+    }
+}
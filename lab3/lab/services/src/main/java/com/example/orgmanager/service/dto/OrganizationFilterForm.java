@@ -0,0 +1,57 @@
+package com.example.orgmanager.service.dto;
+
+import com.example.orgmanager.service.FilterOperator;
+import com.example.orgmanager.service.OrganizationFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Filter query parameters of the organization list. Text conditions are
+ * given as parallel {@code filterField} / {@code filterOp} /
+ * {@code filterValue} parameters and may repeat; a missing operator means
+ * {@code eq}.
+ */
+@Getter
+@Setter
+public final class OrganizationFilterForm {
+    private List<String> filterField = new ArrayList<>();
+    private List<String> filterOp = new ArrayList<>();
+    private List<String> filterValue = new ArrayList<>();
+
+    private String annualTurnoverMin;
+    private String annualTurnoverMax;
+    private String employeesCountMin;
+    private String employeesCountMax;
+    private String ratingMin;
+    private String ratingMax;
+
+    public OrganizationFilter toFilter() {
+        List<OrganizationFilter.Condition> conditions = new ArrayList<>();
+        for (int i = 0; i < filterField.size(); i++) {
+            String op = at(filterOp, i);
+            FilterOperator operator = op == null || op.isBlank()
+                    ? FilterOperator.EQ
+                    : FilterOperator.fromCode(op.strip());
+            OrganizationFilter.Condition.of(
+                    Optional.ofNullable(filterField.get(i)),
+                    operator,
+                    Optional.ofNullable(at(filterValue, i)))
+                    .ifPresent(conditions::add);
+        }
+        return new OrganizationFilter(conditions, List.of(
+                range("annualTurnover", annualTurnoverMin, annualTurnoverMax),
+                range("employeesCount", employeesCountMin, employeesCountMax),
+                range("rating", ratingMin, ratingMax)));
+    }
+
+    private static String at(List<String> values, int index) {
+        return index < values.size() ? values.get(index) : null;
+    }
+
+    private static OrganizationFilter.Range range(String field, String min, String max) {
+        return new OrganizationFilter.Range(field, Optional.ofNullable(min), Optional.ofNullable(max));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.orgmanager.service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Paging query parameters of the organization list: the page and its size,
+ * the sort column and direction as sent, and the navigation mode
+ * ({@code page}, {@code slice} or {@code keyset}) with its cursor.
+ */
+@Getter
+@Setter
+public final class OrganizationPageForm {
+    private static final int DEFAULT_SIZE = 10;
+
+    private int page;
+    private int size = DEFAULT_SIZE;
+    private String sort;
+    private String dir;
+    private String mode = "page";
+    private String cursor;
+}
@@ -3,30 +3,86 @@ package com.example.orgmanager.service.lock;
 import com.example.orgmanager.repository.AppLockRepository;
 import jakarta.persistence.LockTimeoutException;
 import jakarta.persistence.PessimisticLockException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Named locks held until the surrounding transaction ends. The {@code table}
+ * backend, the default, keeps a row per name in app_lock; the
+ * {@code advisory} backend uses PostgreSQL advisory locks keyed by a 64-bit
+ * hash of the name and waits at most {@code app.lock.wait-timeout} when the
+ * lock is taken. Advisory locks are bounded by the server's lock table, see
+ * {@link LockBackend#ADVISORY}. Callers on the
+ * same node are expected to hold the name in {@link LocalNameLocks} first, so
+ * only one of them at a time opens a transaction for it.
+ */
 @Service
 public class DatabaseLockService {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int BYTE_MASK = 0xff;
+
     private final AppLockRepository appLockRepository;
+    private final LockBackend backend;
+    private final Duration waitTimeout;
 
-    public DatabaseLockService(AppLockRepository appLockRepository) {
+    public DatabaseLockService(
+            AppLockRepository appLockRepository,
+            @Value("${app.lock.backend:TABLE}") LockBackend backend,
+            @Value("${app.lock.wait-timeout:5s}") Duration waitTimeout) {
         this.appLockRepository = appLockRepository;
+        this.backend = backend;
+        this.waitTimeout = waitTimeout;
     }
 
     @Transactional(propagation = Propagation.MANDATORY)
     public boolean tryAcquire(String lockName) {
-        ensureLockExists(lockName);
         try {
-            return appLockRepository.findByNameForUpdate(lockName).isPresent();
+            return backend == LockBackend.ADVISORY
+                    ? acquireAdvisory(lockName)
+                    : acquireRow(lockName);
         } catch (PessimisticLockingFailureException | PessimisticLockException | LockTimeoutException ex) {
             return false;
         }
     }
 
+    private boolean acquireRow(String lockName) {
+        ensureLockExists(lockName);
+        return appLockRepository.findByNameForUpdate(lockName).isPresent();
+    }
+
+    private boolean acquireAdvisory(String lockName) {
+        long key = advisoryKey(lockName);
+        if (appLockRepository.tryAdvisoryXactLock(key)) {
+            return true;
+        }
+        if (waitTimeout.toMillis() <= 0) {
+            // lock_timeout = 0 would mean waiting forever
+            return false;
+        }
+        // a failed wait aborts the transaction, just like a FOR UPDATE timeout on the table backend
+        appLockRepository.setLocalLockTimeout(waitTimeout.toMillis() + "ms");
+        appLockRepository.advisoryXactLock(key);
+        appLockRepository.resetLocalLockTimeout();
+        return true;
+    }
+
     private void ensureLockExists(String lockName) {
         appLockRepository.insertIgnore(lockName);
     }
+
+    /** 64-bit FNV-1a of the UTF-8 name; a collision only makes two names share a lock. */
+    static long advisoryKey(String lockName) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : lockName.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & BYTE_MASK;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
 }
@@ -0,0 +1,92 @@
+package com.example.orgmanager.service.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * JVM-local tier in front of {@link DatabaseLockService}: requests on this
+ * node that race for the same lock name queue on a {@link ReentrantLock} of
+ * that name before they open a transaction, so a waiter holds neither a
+ * pooled connection nor a PostgreSQL lock. A lock exists only while someone
+ * holds or waits for it, and the caller releases it as soon as its own write
+ * completes, even when that write joined a longer transaction.
+ */
+@Component
+public class LocalNameLocks {
+    private final ConcurrentMap<String, NameLock> locks = new ConcurrentHashMap<>();
+    private final Timer waitTimer;
+    private final Counter rejections;
+    private final long waitNanos;
+
+    public LocalNameLocks(
+            MeterRegistry meterRegistry,
+            @Value("${app.lock.local.wait-timeout:5s}") Duration waitTimeout) {
+        this.waitNanos = waitTimeout.toNanos();
+        this.waitTimer = Timer.builder("app.lock.local.wait")
+                .description("Time spent waiting for a local name lock")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("app.lock.local.rejected")
+                .description("Local lock requests that gave up after the wait timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes the lock of {@code lockName}, reentrant for the current thread.
+     * Returns {@code null} if another thread keeps it for longer than the wait
+     * timeout; otherwise the returned handle must be closed on this thread.
+     */
+    public Held tryAcquire(String lockName) {
+        NameLock nameLock = locks.compute(lockName, (name, existing) -> {
+            NameLock reference = existing == null ? new NameLock() : existing;
+            reference.users++;
+            return reference;
+        });
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = nameLock.lock.tryLock(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejections.increment();
+            unreference(lockName);
+            return null;
+        }
+        return () -> {
+            nameLock.lock.unlock();
+            unreference(lockName);
+        };
+    }
+
+    /** Number of names currently held or waited for. */
+    int size() {
+        return locks.size();
+    }
+
+    private void unreference(String lockName) {
+        locks.computeIfPresent(lockName, (name, nameLock) -> --nameLock.users == 0 ? null : nameLock);
+    }
+
+    /** A taken name lock; closing it releases the lock. */
+    @FunctionalInterface
+    public interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class NameLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+}
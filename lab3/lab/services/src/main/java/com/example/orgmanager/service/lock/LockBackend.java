@@ -0,0 +1,13 @@
+package com.example.orgmanager.service.lock;
+
+public enum LockBackend {
+    /** One app_lock row per name locked with SELECT ... FOR UPDATE; works on any database. */
+    TABLE,
+    /**
+     * Transaction-scoped PostgreSQL advisory locks; nothing is stored. Each
+     * name takes a slot of the shared lock table until commit, so a
+     * transaction that locks thousands of names, such as a YAML import, can
+     * run out of them.
+     */
+    ADVISORY
+}
@@ -0,0 +1,4 @@
+package com.example.orgmanager.service.lookup;
+
+public record AddressOption(Long id, String street, String zipCode) {
+}
@@ -0,0 +1,4 @@
+package com.example.orgmanager.service.lookup;
+
+public record CoordinatesOption(Long id, int x, Float y) {
+}
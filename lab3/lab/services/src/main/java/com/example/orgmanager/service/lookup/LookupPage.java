@@ -0,0 +1,10 @@
+package com.example.orgmanager.service.lookup;
+
+import java.util.List;
+
+/** One page of typeahead results; there is no total, only whether more follow. */
+public record LookupPage<T>(List<T> items, boolean hasNext) {
+    public LookupPage {
+        items = List.copyOf(items);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.orgmanager.service.lookup;
+
+import com.example.orgmanager.repository.AddressRepository;
+import com.example.orgmanager.repository.CoordinatesRepository;
+import jakarta.validation.ValidationException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+/**
+ * Paged searches behind the address and coordinates pickers of the
+ * organization forms. Every query is an index range scan with a LIMIT, so
+ * the cost does not depend on the table size. Results are kept for a short
+ * time because a typeahead repeats the same prefixes while the user types
+ * and deletes; a new row shows up after at most one TTL.
+ */
+@Service
+public class ReferenceLookupService {
+    public static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_CACHED = 1000;
+    private static final Sort ADDRESS_ORDER = Sort.by("street", "zipCode", "id");
+    private static final Sort COORDINATES_ORDER = Sort.by("x", "y", "id");
+
+    private final AddressRepository addressRepository;
+    private final CoordinatesRepository coordinatesRepository;
+    private final long ttlNanos;
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+
+    public ReferenceLookupService(
+            AddressRepository addressRepository,
+            CoordinatesRepository coordinatesRepository,
+            @Value("${app.lookup.cache-ttl:5s}") Duration ttl) {
+        this.addressRepository = addressRepository;
+        this.coordinatesRepository = coordinatesRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /** Addresses whose street (any case) or zip code starts with {@code query}. */
+    public LookupPage<AddressOption> addresses(String query, int page, int size) {
+        PageRequest pageable = pageRequest(page, size, ADDRESS_ORDER);
+        String prefix = query == null ? "" : query.strip();
+        return cached("address|" + prefix + "|" + page + "|" + size, () -> toPage(prefix.isEmpty()
+                ? addressRepository.findAllBy(pageable)
+                : addressRepository.findByStreetStartingWithIgnoreCaseOrZipCodeStartingWith(
+                        prefix, prefix, pageable),
+                ReferenceLookupService::toAddressOption));
+    }
+
+    /** Coordinates inside the box; a missing bound leaves that side open. */
+    public LookupPage<CoordinatesOption> coordinates(
+            Integer minX,
+            Integer maxX,
+            Float minY,
+            Float maxY,
+            int page,
+            int size) {
+        PageRequest pageable = pageRequest(page, size, COORDINATES_ORDER);
+        int fromX = minX == null ? Integer.MIN_VALUE : minX;
+        int toX = maxX == null ? Integer.MAX_VALUE : maxX;
+        float fromY = minY == null ? -Float.MAX_VALUE : minY;
+        float toY = maxY == null ? Float.MAX_VALUE : maxY;
+        String key = "coordinates|" + fromX + "|" + toX + "|" + fromY + "|" + toY + "|" + page + "|" + size;
+        return cached(key, () -> toPage(
+                coordinatesRepository.findByXBetweenAndYBetween(fromX, toX, fromY, toY, pageable),
+                ReferenceLookupService::toCoordinatesOption));
+    }
+
+    /** The current selection of a picker, for re-rendering a form. */
+    public Optional<AddressOption> addressById(Long id) {
+        return id == null
+                ? Optional.empty()
+                : addressRepository.findOptionById(id).map(ReferenceLookupService::toAddressOption);
+    }
+
+    public Optional<CoordinatesOption> coordinatesById(Long id) {
+        return id == null
+                ? Optional.empty()
+                : coordinatesRepository.findPointById(id).map(ReferenceLookupService::toCoordinatesOption);
+    }
+
+    private static PageRequest pageRequest(int page, int size, Sort sort) {
+        if (page < 0) {
+            throw new ValidationException("Номер страницы не может быть отрицательным");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(page, size, sort);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> LookupPage<T> cached(String key, Supplier<LookupPage<T>> loader) {
+        long now = System.nanoTime();
+        Cached hit = cache.get(key);
+        if (hit != null && now - hit.loadedAt() < ttlNanos) {
+            return (LookupPage<T>) hit.page();
+        }
+        LookupPage<T> page = loader.get();
+        if (cache.size() >= MAX_CACHED) {
+            cache.values().removeIf(entry -> now - entry.loadedAt() >= ttlNanos);
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+        }
+        cache.put(key, new Cached(page, now));
+        return page;
+    }
+
+    private static <S, T> LookupPage<T> toPage(Slice<S> slice, Function<S, T> mapper) {
+        return new LookupPage<>(slice.map(mapper).getContent(), slice.hasNext());
+    }
+
+    private static AddressOption toAddressOption(AddressRepository.AddressOptionView view) {
+        return new AddressOption(view.getId(), view.getStreet(), view.getZipCode());
+    }
+
+    private static CoordinatesOption toCoordinatesOption(CoordinatesRepository.PointProjection point) {
+        return new CoordinatesOption(point.getId(), point.getX(), point.getY());
+    }
+
+    private record Cached(LookupPage<?> page, long loadedAt) {
+    }
+}
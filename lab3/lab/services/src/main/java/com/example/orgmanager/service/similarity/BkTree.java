@@ -0,0 +1,164 @@
+package com.example.orgmanager.service.similarity;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Burkhard-Keller tree over normalized names with the Levenshtein metric.
+ * Every key remembers which organizations own it; keys whose owners are all
+ * gone stay in the tree as tombstones until the tree is compacted.
+ */
+final class BkTree {
+    private static final int UNBOUNDED = Integer.MAX_VALUE - 1;
+
+    private Node root;
+    private int liveKeys;
+    private int deadKeys;
+
+    void add(String key, Integer ownerId, String original) {
+        if (root == null) {
+            root = new Node(key);
+            root.owners.put(ownerId, original);
+            liveKeys++;
+            return;
+        }
+        BoundedLevenshtein matcher = BoundedLevenshtein.compile(key);
+        Node node = root;
+        while (true) {
+            int distance = matcher.distance(node.key, UNBOUNDED);
+            if (distance == 0) {
+                if (node.owners.isEmpty()) {
+                    deadKeys--;
+                    liveKeys++;
+                }
+                node.owners.put(ownerId, original);
+                return;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                child = new Node(key);
+                child.owners.put(ownerId, original);
+                node.setChild(distance, child);
+                liveKeys++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    void remove(String key, Integer ownerId) {
+        BoundedLevenshtein matcher = BoundedLevenshtein.compile(key);
+        Node node = root;
+        while (node != null) {
+            int distance = matcher.distance(node.key, UNBOUNDED);
+            if (distance == 0) {
+                if (node.owners.remove(ownerId) != null && node.owners.isEmpty()) {
+                    liveKeys--;
+                    deadKeys++;
+                }
+                return;
+            }
+            node = node.child(distance);
+        }
+    }
+
+    /**
+     * Returns the closest key within {@code radius} that has at least one owner
+     * accepted by {@code ownerFilter}, or {@code null} when there is none.
+     */
+    Match search(String key, int radius, Predicate<Integer> ownerFilter) {
+        if (root == null) {
+            return null;
+        }
+        BoundedLevenshtein matcher = BoundedLevenshtein.compile(key);
+        Match best = null;
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            // children sit at distances 1..length-1, so anything beyond that plus the radius is unreachable
+            int limit = Math.max(radius, node.children.length - 1 + radius);
+            int distance = matcher.distance(node.key, limit);
+            if (distance <= radius && (best == null || distance < best.distance())) {
+                Map.Entry<Integer, String> owner = node.firstOwner(ownerFilter);
+                if (owner != null) {
+                    best = new Match(node.key, owner.getKey(), owner.getValue(), distance);
+                }
+            }
+            int from = Math.max(1, distance - radius);
+            int to = Math.min(node.children.length - 1, distance + radius);
+            for (int d = from; d <= to; d++) {
+                Node child = node.children[d];
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return best;
+    }
+
+    int size() {
+        return liveKeys;
+    }
+
+    boolean needsCompaction() {
+        return deadKeys > liveKeys;
+    }
+
+    BkTree compacted() {
+        BkTree copy = new BkTree();
+        if (root == null) {
+            return copy;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            node.owners.forEach((ownerId, original) -> copy.add(node.key, ownerId, original));
+            for (Node child : node.children) {
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return copy;
+    }
+
+    record Match(String key, Integer ownerId, String original, int distance) { }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final String key;
+        private final Map<Integer, String> owners = new HashMap<>(2);
+        private Node[] children = NO_CHILDREN;
+
+        Node(String key) {
+            this.key = key;
+        }
+
+        Node child(int distance) {
+            return distance < children.length ? children[distance] : null;
+        }
+
+        void setChild(int distance, Node child) {
+            if (distance >= children.length) {
+                children = Arrays.copyOf(children, distance + 1);
+            }
+            children[distance] = child;
+        }
+
+        Map.Entry<Integer, String> firstOwner(Predicate<Integer> ownerFilter) {
+            for (Map.Entry<Integer, String> entry : owners.entrySet()) {
+                if (ownerFilter.test(entry.getKey())) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+}
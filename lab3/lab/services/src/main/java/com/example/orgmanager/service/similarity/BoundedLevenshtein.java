@@ -0,0 +1,165 @@
+package com.example.orgmanager.service.similarity;
+
+import java.util.Arrays;
+
+/**
+ * Levenshtein distance from one fixed pattern to many texts, computed only as
+ * far as a caller-supplied limit. Patterns of up to 64 chars use Myers'
+ * bit-parallel algorithm, longer ones fall back to a banded (Ukkonen) matrix.
+ * The pattern is compiled once; comparisons allocate nothing. Instances are
+ * not thread-safe.
+ */
+public final class BoundedLevenshtein {
+    private static final int WORD_SIZE = Long.SIZE;
+    private static final int EMPTY_SLOT = -1;
+
+    private final String pattern;
+    private final int length;
+    private final int[] slotChars;
+    private final long[] slotMasks;
+    private final int slotMask;
+    private final int[] previousRow;
+    private final int[] currentRow;
+
+    private BoundedLevenshtein(String pattern) {
+        this.pattern = pattern;
+        this.length = pattern.length();
+        if (length <= WORD_SIZE) {
+            int slots = Integer.highestOneBit(Math.max(length, 1) * 2) * 2;
+            this.slotChars = new int[slots];
+            this.slotMasks = new long[slots];
+            this.slotMask = slots - 1;
+            Arrays.fill(slotChars, EMPTY_SLOT);
+            for (int i = 0; i < length; i++) {
+                int slot = slotOf(pattern.charAt(i));
+                slotChars[slot] = pattern.charAt(i);
+                slotMasks[slot] |= 1L << i;
+            }
+            this.previousRow = null;
+            this.currentRow = null;
+        } else {
+            this.slotChars = null;
+            this.slotMasks = null;
+            this.slotMask = 0;
+            this.previousRow = new int[length + 1];
+            this.currentRow = new int[length + 1];
+        }
+    }
+
+    public static BoundedLevenshtein compile(String pattern) {
+        return new BoundedLevenshtein(pattern);
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the exact distance to {@code text} when it does not exceed
+     * {@code limit}, otherwise {@code limit + 1}.
+     */
+    public int distance(String text, int limit) {
+        int textLength = text.length();
+        if (Math.abs(length - textLength) > limit) {
+            return limit + 1;
+        }
+        if (length == 0 || textLength == 0) {
+            return Math.max(length, textLength);
+        }
+        // the distance never exceeds the longer length, so a larger limit only risks overflow
+        int effectiveLimit = Math.min(limit, Math.max(length, textLength));
+        return length <= WORD_SIZE
+                ? bitParallel(text, effectiveLimit)
+                : banded(text, effectiveLimit);
+    }
+
+    public boolean isWithin(String text, int limit) {
+        return distance(text, limit) <= limit;
+    }
+
+    private int bitParallel(String text, int limit) {
+        int textLength = text.length();
+        long last = 1L << (length - 1);
+        long positive = -1L;
+        long negative = 0L;
+        int score = length;
+        for (int j = 0; j < textLength; j++) {
+            long equal = maskOf(text.charAt(j));
+            long vertical = equal | negative;
+            long horizontal = (((equal & positive) + positive) ^ positive) | equal;
+            long horizontalPositive = negative | ~(horizontal | positive);
+            long horizontalNegative = positive & horizontal;
+            if ((horizontalPositive & last) != 0) {
+                score++;
+            } else if ((horizontalNegative & last) != 0) {
+                score--;
+            }
+            // every remaining column can lower the bottom row by one at most
+            if (score - (textLength - j - 1) > limit) {
+                return limit + 1;
+            }
+            horizontalPositive = (horizontalPositive << 1) | 1L;
+            horizontalNegative <<= 1;
+            positive = horizontalNegative | ~(vertical | horizontalPositive);
+            negative = horizontalPositive & vertical;
+        }
+        return score <= limit ? score : limit + 1;
+    }
+
+    private int banded(String text, int limit) {
+        int textLength = text.length();
+        int outside = limit + 1;
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        for (int j = 0; j <= length; j++) {
+            previous[j] = j <= limit ? j : outside;
+        }
+        for (int i = 1; i <= textLength; i++) {
+            int from = Math.max(1, i - limit);
+            int to = Math.min(length, i + limit);
+            current[from - 1] = from == 1 && i <= limit ? i : outside;
+            int rowMinimum = current[from - 1];
+            char textChar = text.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = pattern.charAt(j - 1) == textChar ? 0 : 1;
+                int value = Math.min(
+                        Math.min(current[j - 1] + 1, previous[j] + 1),
+                        previous[j - 1] + cost);
+                current[j] = Math.min(value, outside);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < length) {
+                current[to + 1] = outside;
+            }
+            if (rowMinimum > limit) {
+                return outside;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[length], outside);
+    }
+
+    private long maskOf(char value) {
+        int slot = value & slotMask;
+        while (true) {
+            int stored = slotChars[slot];
+            if (stored == value) {
+                return slotMasks[slot];
+            }
+            if (stored == EMPTY_SLOT) {
+                return 0L;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private int slotOf(char value) {
+        int slot = value & slotMask;
+        while (slotChars[slot] != EMPTY_SLOT && slotChars[slot] != value) {
+            slot = (slot + 1) & slotMask;
+        }
+        return slot;
+    }
+}
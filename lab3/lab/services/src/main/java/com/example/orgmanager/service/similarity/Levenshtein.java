@@ -0,0 +1,37 @@
+package com.example.orgmanager.service.similarity;
+
+public final class Levenshtein {
+    private Levenshtein() {
+    }
+
+    public static int distance(String left, String right) {
+        int lenLeft = left.length();
+        int lenRight = right.length();
+        if (lenLeft == 0) {
+            return lenRight;
+        }
+        if (lenRight == 0) {
+            return lenLeft;
+        }
+        int[] previous = new int[lenRight + 1];
+        int[] current = new int[lenRight + 1];
+        for (int j = 0; j <= lenRight; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= lenLeft; i++) {
+            current[0] = i;
+            for (int j = 1; j <= lenRight; j++) {
+                int cost = left.charAt(i - 1) == right.charAt(j - 1)
+                        ? 0
+                        : 1;
+                current[j] = Math.min(
+                        Math.min(current[j - 1] + 1, previous[j] + 1),
+                        previous[j - 1] + cost);
+            }
+            int[] temp = previous;
+            previous = current;
+            current = temp;
+        }
+        return previous[lenRight];
+    }
+}
@@ -0,0 +1,413 @@
+package com.example.orgmanager.service.similarity;
+
+import com.example.orgmanager.repository.OrganizationRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the normalized names of all organizations in a BK-tree so that the
+ * "similar name" rule does not need to scan the whole table on every write.
+ * Changes made inside a transaction are visible to that transaction right
+ * away and are merged into the shared tree only after commit. The tree is
+ * built once at startup from committed rows and only ever used to reject:
+ * each hit is confirmed against its row, and a name it does not know is
+ * looked up in the table within the caller's transaction, which also sees
+ * the writes of other nodes. That lookup compares the names in the database
+ * and stops at the first match, so an accepted name fetches no rows.
+ *
+ * <p>With {@code app.name-similarity.strategy=database} the tree is not
+ * built at all and every check is a single indexed PostgreSQL query instead.
+ * That query needs the pg_trgm and fuzzystrmatch extensions, which are
+ * checked for at startup.
+ */
+@Service
+public class NameSimilarityService {
+    private static final int SIMILAR_NAME_DISTANCE_THRESHOLD = 3;
+    private static final int SEARCH_RADIUS = SIMILAR_NAME_DISTANCE_THRESHOLD - 1;
+
+    private static final double THRESHOLD_MARGIN = 0.001;
+    private static final List<String> DATABASE_EXTENSIONS = List.of("pg_trgm", "fuzzystrmatch");
+
+    private final OrganizationRepository organizationRepository;
+    private final NameSimilarityStrategy strategy;
+    private final TransactionTemplate loadTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, List<NameCandidate>> namesById = new HashMap<>();
+    private BkTree tree = new BkTree();
+    private volatile boolean loaded;
+
+    public NameSimilarityService(
+            OrganizationRepository organizationRepository,
+            @Value("${app.name-similarity.strategy:INDEX}") NameSimilarityStrategy strategy,
+            PlatformTransactionManager transactionManager) {
+        this.organizationRepository = organizationRepository;
+        this.strategy = strategy;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Builds the tree in a transaction of its own, so it never holds another one's uncommitted rows.
+     * With the database strategy it only checks that the extensions its query needs are installed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (strategy == NameSimilarityStrategy.DATABASE) {
+            loadTransaction.executeWithoutResult(status -> requireExtensions());
+        } else {
+            loadTransaction.executeWithoutResult(status -> load());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SimilarName> findSimilar(String name, String fullName, Integer excludeId) {
+        List<NameCandidate> candidates = collectNameCandidates(name, fullName);
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        if (strategy == NameSimilarityStrategy.DATABASE) {
+            return Optional.ofNullable(findSimilarInDatabase(candidates, excludeId));
+        }
+        PendingChanges pending = currentPending();
+        SimilarName best = loaded ? findConfirmedInIndex(candidates, excludeId, pending) : null;
+        if (pending != null) {
+            best = closer(best, pending.findSimilar(candidates, excludeId));
+        }
+        if (best == null) {
+            // the tree misses other nodes' writes; reading the rows also makes concurrent
+            // SERIALIZABLE writers of similar names conflict, as the full scan used to
+            best = findSimilarInTable(candidates, excludeId);
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public void stage(Integer id, String name, String fullName) {
+        if (strategy == NameSimilarityStrategy.DATABASE) {
+            return;
+        }
+        List<NameCandidate> names = collectNameCandidates(name, fullName);
+        PendingChanges pending = bindPending();
+        if (pending == null) {
+            apply(Map.of(id, names), Set.of());
+        } else {
+            pending.removed.remove(id);
+            pending.saved.put(id, names);
+        }
+    }
+
+    public void stageRemoval(Integer id) {
+        if (strategy == NameSimilarityStrategy.DATABASE) {
+            return;
+        }
+        PendingChanges pending = bindPending();
+        if (pending == null) {
+            apply(Map.of(), Set.of(id));
+        } else {
+            pending.saved.remove(id);
+            pending.removed.add(id);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void requireExtensions() {
+        List<String> missing = new ArrayList<>(DATABASE_EXTENSIONS);
+        missing.removeAll(organizationRepository.findInstalledExtensions(DATABASE_EXTENSIONS));
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("app.name-similarity.strategy=database needs the PostgreSQL "
+                    + "extensions " + String.join(", ", missing) + ": run \"create extension\" for them as a "
+                    + "role that may, add classpath:db/name-similarity.sql to spring.sql.init.schema-locations, "
+                    + "or use app.name-similarity.strategy=index");
+        }
+    }
+
+    private SimilarName findSimilarInDatabase(List<NameCandidate> candidates, Integer excludeId) {
+        SimilarName best = null;
+        for (NameCandidate candidate : candidates) {
+            String normalized = candidate.normalized();
+            double threshold = Trigrams.similarityLowerBound(normalized, SEARCH_RADIUS);
+            Optional<OrganizationRepository.SimilarNameProjection> match;
+            if (threshold > THRESHOLD_MARGIN) {
+                organizationRepository.setSimilarityThreshold(
+                        String.format(Locale.ROOT, "%.4f", threshold - THRESHOLD_MARGIN));
+                match = organizationRepository.findSimilarNameByTrigrams(
+                        normalized, SEARCH_RADIUS, excludeId);
+            } else {
+                // too few trigrams for the bound to prune anything, the length band is all we have
+                match = organizationRepository.findSimilarNameByLength(
+                        normalized,
+                        SEARCH_RADIUS,
+                        excludeId,
+                        Math.max(0, normalized.length() - SEARCH_RADIUS),
+                        normalized.length() + SEARCH_RADIUS);
+            }
+            if (match.isPresent()) {
+                SimilarName found = new SimilarName(
+                        candidate.original(),
+                        match.get().getExisting(),
+                        match.get().getDistance());
+                best = closer(best, found);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Closest indexed name confirmed by its row. A row renamed or deleted by
+     * another node is still in the tree; it is skipped and the search repeated.
+     */
+    private SimilarName findConfirmedInIndex(
+            List<NameCandidate> candidates,
+            Integer excludeId,
+            PendingChanges pending) {
+        Set<Integer> stale = new HashSet<>();
+        Predicate<Integer> ownerFilter = ownerId -> !ownerId.equals(excludeId)
+                && (pending == null || !pending.touches(ownerId))
+                && !stale.contains(ownerId);
+        while (true) {
+            BkTree.Match best = null;
+            lock.readLock().lock();
+            try {
+                for (NameCandidate candidate : candidates) {
+                    BkTree.Match match = tree.search(candidate.normalized(), SEARCH_RADIUS, ownerFilter);
+                    if (match != null && (best == null || match.distance() < best.distance())) {
+                        best = match;
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (best == null) {
+                return null;
+            }
+            SimilarName confirmed = organizationRepository.findNamesById(best.ownerId())
+                    .map(row -> closest(candidates, List.of(collectNameCandidates(row.getName(), row.getFullName()))))
+                    .orElse(null);
+            if (confirmed != null) {
+                return confirmed;
+            }
+            stale.add(best.ownerId());
+        }
+    }
+
+    /**
+     * Any name in the table within the search radius, not necessarily the
+     * closest one. Every such name is at most that many characters longer or
+     * shorter than the candidate.
+     */
+    private SimilarName findSimilarInTable(List<NameCandidate> candidates, Integer excludeId) {
+        for (NameCandidate candidate : candidates) {
+            String normalized = candidate.normalized();
+            Optional<OrganizationRepository.SimilarNameProjection> match = organizationRepository
+                    .findSimilarNameWithin(
+                            normalized,
+                            SEARCH_RADIUS,
+                            excludeId,
+                            Math.max(0, normalized.length() - SEARCH_RADIUS),
+                            normalized.length() + SEARCH_RADIUS);
+            if (match.isPresent()) {
+                return new SimilarName(candidate.original(), match.get().getExisting(), match.get().getDistance());
+            }
+        }
+        return null;
+    }
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            BkTree fresh = new BkTree();
+            namesById.clear();
+            for (OrganizationRepository.NameProjection projection
+                    : organizationRepository.findNamesExcludingId(null)) {
+                List<NameCandidate> names = collectNameCandidates(
+                        projection.getName(),
+                        projection.getFullName());
+                namesById.put(projection.getId(), names);
+                for (NameCandidate candidate : names) {
+                    fresh.add(candidate.normalized(), projection.getId(), candidate.original());
+                }
+            }
+            tree = fresh;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Map<Integer, List<NameCandidate>> saved, Set<Integer> removed) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                // the initial load reads committed state; whatever it misses is found in the table
+                return;
+            }
+            for (Integer id : removed) {
+                unindex(id);
+            }
+            saved.forEach((id, names) -> {
+                unindex(id);
+                namesById.put(id, names);
+                for (NameCandidate candidate : names) {
+                    tree.add(candidate.normalized(), id, candidate.original());
+                }
+            });
+            if (tree.needsCompaction()) {
+                tree = tree.compacted();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(Integer id) {
+        List<NameCandidate> previous = namesById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (NameCandidate candidate : previous) {
+            tree.remove(candidate.normalized(), id);
+        }
+    }
+
+    private PendingChanges currentPending() {
+        return (PendingChanges) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private PendingChanges bindPending() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        PendingChanges pending = currentPending();
+        if (pending != null) {
+            return pending;
+        }
+        PendingChanges created = new PendingChanges();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void suspend() {
+                        // a REQUIRES_NEW transaction must not stage into this one
+                        TransactionSynchronizationManager.unbindResource(NameSimilarityService.this);
+                    }
+
+                    @Override
+                    public void resume() {
+                        TransactionSynchronizationManager.bindResource(NameSimilarityService.this, created);
+                    }
+
+                    @Override
+                    public void afterCommit() {
+                        apply(created.saved, created.removed);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(
+                                NameSimilarityService.this);
+                    }
+                });
+        return created;
+    }
+
+    private static SimilarName closest(List<NameCandidate> candidates, Collection<List<NameCandidate>> existing) {
+        SimilarName best = null;
+        for (NameCandidate candidate : candidates) {
+            best = closer(best, closestTo(candidate, existing));
+        }
+        return best;
+    }
+
+    /** The existing name closest to {@code candidate} within the search radius, or {@code null}. */
+    private static SimilarName closestTo(NameCandidate candidate, Collection<List<NameCandidate>> existing) {
+        BoundedLevenshtein matcher = BoundedLevenshtein.compile(candidate.normalized());
+        SimilarName best = null;
+        for (List<NameCandidate> names : existing) {
+            for (NameCandidate name : names) {
+                int distance = matcher.distance(name.normalized(), SEARCH_RADIUS);
+                if (distance < SIMILAR_NAME_DISTANCE_THRESHOLD && (best == null || distance < best.distance())) {
+                    best = new SimilarName(candidate.original(), name.original(), distance);
+                }
+            }
+        }
+        return best;
+    }
+
+    private static SimilarName closer(SimilarName left, SimilarName right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return right.distance() < left.distance() ? right : left;
+    }
+
+    private static List<NameCandidate> collectNameCandidates(String... values) {
+        List<NameCandidate> result = new ArrayList<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            String trimmed = value.strip();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(new NameCandidate(
+                    trimmed,
+                    trimmed.toUpperCase(Locale.ROOT)));
+        }
+        return result;
+    }
+
+    public record SimilarName(String candidate, String existing, int distance) { }
+
+    private record NameCandidate(String original, String normalized) { }
+
+    private static final class PendingChanges {
+        private final Map<Integer, List<NameCandidate>> saved = new HashMap<>();
+        private final Set<Integer> removed = new HashSet<>();
+
+        boolean touches(Integer id) {
+            return saved.containsKey(id) || removed.contains(id);
+        }
+
+        SimilarName findSimilar(List<NameCandidate> candidates, Integer excludeId) {
+            List<List<NameCandidate>> others = new ArrayList<>(saved.size());
+            saved.forEach((id, names) -> {
+                if (!id.equals(excludeId)) {
+                    others.add(names);
+                }
+            });
+            return closest(candidates, others);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.orgmanager.service.similarity;
+
+public enum NameSimilarityStrategy {
+    /** In-memory BK-tree, works on any database. */
+    INDEX,
+    /** pg_trgm + fuzzystrmatch query, PostgreSQL only; both extensions must be installed. */
+    DATABASE
+}
@@ -0,0 +1,55 @@
+package com.example.orgmanager.service.similarity;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Mirrors how pg_trgm splits a string into trigrams, so the similarity
+ * threshold for the database pre-filter can be derived from the candidate.
+ */
+final class Trigrams {
+    private static final int TRIGRAM_LENGTH = 3;
+
+    private Trigrams() {
+    }
+
+    static int distinctCount(String value) {
+        return of(value).size();
+    }
+
+    /** Distinct trigrams of {@code value}, as {@code show_trgm} would list them. */
+    static Set<String> of(String value) {
+        Set<String> trigrams = new HashSet<>();
+        String lower = value.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String padded = "  " + lower.substring(start, i) + " ";
+                for (int j = 0; j + TRIGRAM_LENGTH <= padded.length(); j++) {
+                    trigrams.add(padded.substring(j, j + TRIGRAM_LENGTH));
+                }
+                start = -1;
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Lower bound of pg_trgm similarity between {@code value} and any string
+     * within {@code edits} edits of it: every edit touches at most three
+     * trigrams, so at least {@code count - 3 * edits} stay shared and at most
+     * {@code 3 * edits} new ones appear. Returns 0 when nothing is guaranteed.
+     */
+    static double similarityLowerBound(String value, int edits) {
+        int count = distinctCount(value);
+        int damaged = TRIGRAM_LENGTH * edits;
+        if (count <= damaged) {
+            return 0d;
+        }
+        return (double) (count - damaged) / (count + damaged);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.orgmanager.service.spatial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Uniform grid over coordinates points. Nearest-neighbour search walks
+ * outwards from the query point's cell ring by ring.
+ */
+final class CoordinatesGrid {
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+    /** Ring {@code r > 0} around a cell consists of {@code 8 * r} cells. */
+    private static final long CELLS_PER_RING = 8L;
+
+    private final double cellSize;
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Long, Point> pointsById = new HashMap<>();
+
+    CoordinatesGrid(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    void put(Long id, int x, double y) {
+        remove(id);
+        Point point = new Point(id, x, y);
+        pointsById.put(id, point);
+        cells.computeIfAbsent(cellKey(cellOf(x), cellOf(y)), key -> new ArrayList<>(2)).add(point);
+    }
+
+    void remove(Long id) {
+        Point point = pointsById.remove(id);
+        if (point == null) {
+            return;
+        }
+        long key = cellKey(cellOf(point.x()), cellOf(point.y()));
+        List<Point> cell = cells.get(key);
+        cell.remove(point);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    /**
+     * Up to {@code limit} points accepted by {@code filter}, closest first.
+     */
+    List<Neighbour> nearest(int x, double y, int limit, Predicate<Long> filter) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(
+                Comparator.comparingDouble(Neighbour::distance).reversed());
+        int cellX = cellOf(x);
+        int cellY = cellOf(y);
+        long visited = 0;
+        for (int ring = 0; ; ring++) {
+            long ringCells = ring == 0 ? 1 : CELLS_PER_RING * ring;
+            if (visited + ringCells > cells.size()) {
+                // walking empty rings would cost more than looking at every occupied cell
+                best.clear();
+                cells.values().forEach(cell -> offerAll(cell, x, y, limit, filter, best));
+                break;
+            }
+            for (int dx = -ring; dx <= ring; dx++) {
+                boolean edge = dx == -ring || dx == ring;
+                for (int dy = -ring; dy <= ring; dy += edge || ring == 0 ? 1 : 2 * ring) {
+                    List<Point> cell = cells.get(cellKey(cellX + dx, cellY + dy));
+                    if (cell != null) {
+                        offerAll(cell, x, y, limit, filter, best);
+                    }
+                }
+            }
+            visited += ringCells;
+            // anything outside the visited rings is at least ring * cellSize away
+            if (best.size() == limit && best.peek().distance() <= ring * cellSize) {
+                break;
+            }
+        }
+        List<Neighbour> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Neighbour::distance));
+        return result;
+    }
+
+    int size() {
+        return pointsById.size();
+    }
+
+    private static void offerAll(
+            List<Point> cell,
+            int x,
+            double y,
+            int limit,
+            Predicate<Long> filter,
+            PriorityQueue<Neighbour> best) {
+        for (Point point : cell) {
+            if (!filter.test(point.id())) {
+                continue;
+            }
+            double distance = Math.sqrt(point.squaredDistance(x, y));
+            if (best.size() < limit) {
+                best.add(new Neighbour(point, distance));
+            } else if (distance < best.peek().distance()) {
+                best.poll();
+                best.add(new Neighbour(point, distance));
+            }
+        }
+    }
+
+    private int cellOf(double value) {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << Integer.SIZE) | (cellY & LOW_BITS);
+    }
+
+    record Point(Long id, int x, double y) {
+        double squaredDistance(int otherX, double otherY) {
+            double dx = x - otherX;
+            double dy = y - otherY;
+            return dx * dx + dy * dy;
+        }
+    }
+
+    record Neighbour(Point point, double distance) { }
+}
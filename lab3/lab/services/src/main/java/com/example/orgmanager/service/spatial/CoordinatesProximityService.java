@@ -0,0 +1,222 @@
+package com.example.orgmanager.service.spatial;
+
+import com.example.orgmanager.repository.CoordinatesRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps every row of the coordinates table in a uniform grid so that
+ * nearest-point lookups do not hit the database. Like
+ * {@link com.example.orgmanager.service.similarity.NameSimilarityService},
+ * changes staged inside a transaction are visible to it immediately and reach
+ * the shared grid only after commit.
+ *
+ * <p>The minimum-distance rule stays on the indexed bounding-box query: it
+ * runs in the writer's SERIALIZABLE transaction, so two close points created
+ * at once conflict, and it sees points committed by other nodes.
+ */
+@Service
+public class CoordinatesProximityService {
+    /** Matches the minimum allowed distance between organizations. */
+    private static final double CELL_SIZE = 1d;
+
+    private final CoordinatesRepository coordinatesRepository;
+    private final TransactionTemplate loadTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private CoordinatesGrid grid = new CoordinatesGrid(CELL_SIZE);
+    private volatile boolean loaded;
+
+    public CoordinatesProximityService(
+            CoordinatesRepository coordinatesRepository,
+            PlatformTransactionManager transactionManager) {
+        this.coordinatesRepository = coordinatesRepository;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Whether any coordinates other than {@code excludeId} lie strictly closer
+     * than {@code distance} to the given point, read in the caller's transaction.
+     */
+    public boolean hasNeighbourWithin(int x, double y, double distance, Long excludeId) {
+        return coordinatesRepository.countWithinDistance(x, y, distance, excludeId) > 0;
+    }
+
+    /**
+     * Up to {@code limit} coordinates closest to the given point, closest first.
+     */
+    public List<NearbyCoordinates> nearest(int x, double y, int limit) {
+        ensureLoaded();
+        PendingChanges pending = currentPending();
+        Predicate<Long> filter = id -> pending == null || !pending.touches(id);
+        List<CoordinatesGrid.Neighbour> found;
+        lock.readLock().lock();
+        try {
+            found = new ArrayList<>(grid.nearest(x, y, limit, filter));
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (pending != null) {
+            for (CoordinatesGrid.Point point : pending.saved.values()) {
+                found.add(new CoordinatesGrid.Neighbour(point, Math.sqrt(point.squaredDistance(x, y))));
+            }
+            found.sort(Comparator.comparingDouble(CoordinatesGrid.Neighbour::distance));
+        }
+        return found.stream()
+                .limit(limit)
+                .map(neighbour -> new NearbyCoordinates(
+                        neighbour.point().id(),
+                        neighbour.point().x(),
+                        neighbour.point().y(),
+                        neighbour.distance()))
+                .toList();
+    }
+
+    public void stage(Long id, int x, double y) {
+        CoordinatesGrid.Point point = new CoordinatesGrid.Point(id, x, y);
+        PendingChanges pending = bindPending();
+        if (pending == null) {
+            apply(Map.of(id, point), Set.of());
+        } else {
+            pending.removed.remove(id);
+            pending.saved.put(id, point);
+        }
+    }
+
+    public void stageRemoval(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        PendingChanges pending = bindPending();
+        if (pending == null) {
+            apply(Map.of(), Set.copyOf(ids));
+        } else {
+            for (Long id : ids) {
+                pending.saved.remove(id);
+                pending.removed.add(id);
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return grid.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Loads from a transaction of its own, so the grid never holds another one's uncommitted rows. */
+    private void ensureLoaded() {
+        if (!loaded) {
+            loadTransaction.executeWithoutResult(status -> load());
+        }
+    }
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            CoordinatesGrid fresh = new CoordinatesGrid(CELL_SIZE);
+            for (CoordinatesRepository.PointProjection point : coordinatesRepository.findAllPoints()) {
+                fresh.put(point.getId(), point.getX(), point.getY());
+            }
+            grid = fresh;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Map<Long, CoordinatesGrid.Point> saved, Set<Long> removed) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                // the initial load reads committed state and will pick these changes up
+                return;
+            }
+            removed.forEach(grid::remove);
+            saved.values().forEach(point -> grid.put(point.id(), point.x(), point.y()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private PendingChanges currentPending() {
+        return (PendingChanges) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private PendingChanges bindPending() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        PendingChanges pending = currentPending();
+        if (pending != null) {
+            return pending;
+        }
+        PendingChanges created = new PendingChanges();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void suspend() {
+                        // a REQUIRES_NEW transaction must not stage into this one
+                        TransactionSynchronizationManager.unbindResource(CoordinatesProximityService.this);
+                    }
+
+                    @Override
+                    public void resume() {
+                        TransactionSynchronizationManager.bindResource(CoordinatesProximityService.this, created);
+                    }
+
+                    @Override
+                    public void afterCommit() {
+                        apply(created.saved, created.removed);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(
+                                CoordinatesProximityService.this);
+                    }
+                });
+        return created;
+    }
+
+    public record NearbyCoordinates(Long id, int x, double y, double distance) { }
+
+    private static final class PendingChanges {
+        private final Map<Long, CoordinatesGrid.Point> saved = new HashMap<>();
+        private final Set<Long> removed = new HashSet<>();
+
+        boolean touches(Long id) {
+            return saved.containsKey(id) || removed.contains(id);
+        }
+    }
+}
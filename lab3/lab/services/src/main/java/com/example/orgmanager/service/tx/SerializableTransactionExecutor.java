@@ -0,0 +1,164 @@
+package com.example.orgmanager.service.tx;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a unit of work in its own SERIALIZABLE transaction and re-runs it from
+ * scratch when the database reports a serialization failure or deadlock.
+ * Attempts are bounded, separated by jittered exponential backoff and paid
+ * for from a shared retry budget, so a conflict storm does not turn into a
+ * retry storm. When a transaction is already active (e.g. a bulk import) the
+ * work joins it and is not retried: only the outermost transaction can be
+ * safely replayed.
+ */
+@Component
+public class SerializableTransactionExecutor {
+    private static final String SERIALIZATION_FAILURE = "40001";
+    private static final String DEADLOCK_DETECTED = "40P01";
+    private static final int MAX_BACKOFF_SHIFT = 20;
+    private static final int BUDGET_RESERVE = 20;
+
+    private final TransactionTemplate template;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final RetryBudget budget;
+
+    public SerializableTransactionExecutor(
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.retry.max-attempts:5}") int maxAttempts,
+            @Value("${app.retry.initial-backoff:10ms}") Duration initialBackoff,
+            @Value("${app.retry.max-backoff:200ms}") Duration maxBackoff,
+            @Value("${app.retry.budget-ratio:0.5}") double budgetRatio) {
+        this.template = new TransactionTemplate(transactionManager);
+        this.template.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.budget = new RetryBudget(budgetRatio, BUDGET_RESERVE);
+    }
+
+    /**
+     * Executes {@code action} and returns its result. When every attempt
+     * fails, or the budget has no retries left, the last failure is rethrown.
+     */
+    public <T> T execute(String operation, TransactionCallback<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return template.execute(action);
+        }
+        budget.deposit();
+        int attempt = 1;
+        while (true) {
+            try {
+                T result = template.execute(action);
+                recordAttempts(operation, attempt, "success");
+                return result;
+            } catch (RuntimeException ex) {
+                if (!isRetryable(ex)) {
+                    recordAttempts(operation, attempt, "failure");
+                    throw ex;
+                }
+                if (attempt >= maxAttempts) {
+                    recordAttempts(operation, attempt, "exhausted");
+                    throw ex;
+                }
+                if (!budget.tryWithdraw()) {
+                    recordAttempts(operation, attempt, "budget_exhausted");
+                    throw ex;
+                }
+                backOff(attempt);
+                attempt++;
+            }
+        }
+    }
+
+    private void recordAttempts(String operation, int attempts, String outcome) {
+        DistributionSummary.builder("app.tx.attempts")
+                .description("Transaction attempts per serializable unit of work")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(attempts);
+        if (attempts > 1) {
+            Counter.builder("app.tx.retries")
+                    .description("Re-executions after a serialization failure")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .increment(attempts - 1);
+        }
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, MAX_BACKOFF_SHIFT));
+        if (ceiling <= 0) {
+            return;
+        }
+        // full jitter: concurrent losers spread out instead of colliding again
+        long pause = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(pause));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static boolean isRetryable(Throwable failure) {
+        if (failure instanceof ConcurrencyFailureException) {
+            return true;
+        }
+        // serialization failures detected at commit arrive wrapped in a TransactionSystemException
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql
+                    && (SERIALIZATION_FAILURE.equals(sql.getSQLState())
+                    || DEADLOCK_DETECTED.equals(sql.getSQLState()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Every first attempt earns {@code ratio} of a retry; every retry spends a
+     * whole one. Over time at most {@code ratio} of the calls are retried,
+     * with a small reserve for bursts.
+     */
+    private static final class RetryBudget {
+        private final double ratio;
+        private final double capacity;
+        private double tokens;
+
+        RetryBudget(double ratio, int reserve) {
+            this.ratio = ratio;
+            this.capacity = reserve;
+            this.tokens = reserve;
+        }
+
+        synchronized void deposit() {
+            tokens = Math.min(capacity, tokens + ratio);
+        }
+
+        synchronized boolean tryWithdraw() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -8,4 +8,6 @@ dependencies {
     api("org.springframework.boot:spring-boot-starter-thymeleaf")
     api("org.springframework.boot:spring-boot-starter-validation")
     api("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.8.13")
+
+    implementation("io.micrometer:micrometer-core")
 }
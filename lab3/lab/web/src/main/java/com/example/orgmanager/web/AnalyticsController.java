@@ -1,9 +1,12 @@
 package com.example.orgmanager.web;
 
-import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
-import com.example.orgmanager.model.Organization;
-import com.example.orgmanager.service.OrganizationService;
+import com.example.orgmanager.service.analytics.AnalyticsDashboard;
+import com.example.orgmanager.service.analytics.AnalyticsQuery;
+import com.example.orgmanager.service.analytics.AnalyticsService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,41 +16,56 @@ import org.springframework.web.bind.annotation.RequestParam;
 @Controller
 @RequestMapping("/analytics")
 public final class AnalyticsController {
-    private final OrganizationService service;
+    private static final double NANOS_PER_MILLI = 1_000_000d;
 
-    public AnalyticsController(OrganizationService service) {
-        this.service = service;
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
     }
 
     @GetMapping
     public String page(
             Model model,
+            HttpServletResponse response,
             @RequestParam(value = "ratingEq", required = false)
             Double ratingEq,
             @RequestParam(value = "startsWith", required = false)
             String startsWith,
+            @RequestParam(value = "startsWithCursor", required = false)
+            String startsWithCursor,
             @RequestParam(value = "fullNameGt", required = false)
-            String fullNameGt) {
+            String fullNameGt,
+            @RequestParam(value = "fullNameGtCursor", required = false)
+            String fullNameGtCursor) {
+        AnalyticsDashboard dashboard = analyticsService.load(
+                new AnalyticsQuery(ratingEq, startsWith, startsWithCursor, fullNameGt, fullNameGtCursor));
+        // lets the browser's network panel show which panel the page waited for
+        response.addHeader("Server-Timing", dashboard.timings().entrySet().stream()
+                .map(timing -> String.format(Locale.ROOT, "%s;dur=%.1f",
+                        timing.getKey(), timing.getValue().toNanos() / NANOS_PER_MILLI))
+                .collect(Collectors.joining(", ")));
+        model.addAttribute("timedOut", dashboard.timedOut());
         if (ratingEq != null) {
-            model.addAttribute(
-                    "countRatingEq",
-                    service.countByRatingEquals(ratingEq));
+            model.addAttribute("countRatingEq", dashboard.ratingCount());
             model.addAttribute("ratingEq", ratingEq);
         }
+        if (dashboard.startsWith() != null) {
+            model.addAttribute("listStartsWith", dashboard.startsWith().items());
+            model.addAttribute("startsWithNext", dashboard.startsWith().nextCursor());
+        }
         if (startsWith != null && !startsWith.isBlank()) {
-            List<Organization> list = service.fullNameStartsWith(startsWith);
-            model.addAttribute("listStartsWith", list);
             model.addAttribute("startsWith", startsWith);
         }
+        if (dashboard.fullNameGreaterThan() != null) {
+            model.addAttribute("listFullNameGt", dashboard.fullNameGreaterThan().items());
+            model.addAttribute("fullNameGtNext", dashboard.fullNameGreaterThan().nextCursor());
+        }
         if (fullNameGt != null && !fullNameGt.isBlank()) {
-            List<Organization> list = service.fullNameGreaterThan(fullNameGt);
-            model.addAttribute("listFullNameGt", list);
             model.addAttribute("fullNameGt", fullNameGt);
         }
-        model.addAttribute("top5", service.top5ByTurnover());
-        model.addAttribute(
-                "avgTop10Employees",
-                service.averageEmployeesTop10ByTurnover());
+        model.addAttribute("top5", dashboard.top5ByTurnover());
+        model.addAttribute("avgTop10Employees", dashboard.averageEmployeesTop10());
         return "analytics/index";
     }
 }
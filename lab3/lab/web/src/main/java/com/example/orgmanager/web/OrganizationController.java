@@ -2,35 +2,81 @@ package com.example.orgmanager.web;
 
 import com.example.orgmanager.model.Organization;
 import com.example.orgmanager.model.OrganizationType;
+import com.example.orgmanager.service.FilterOperator;
 import com.example.orgmanager.service.OrganizationFilter;
+import com.example.orgmanager.service.OrganizationScroll;
 import com.example.orgmanager.service.OrganizationService;
+import com.example.orgmanager.service.OrganizationSortField;
+import com.example.orgmanager.service.dto.OrganizationFilterForm;
 import com.example.orgmanager.service.dto.OrganizationForm;
+import com.example.orgmanager.service.dto.OrganizationPageForm;
+import com.example.orgmanager.service.lookup.ReferenceLookupService;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import jakarta.validation.Valid;
 import jakarta.validation.ValidationException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Optional;
-import org.springframework.data.domain.Page;
+import java.util.StringJoiner;
+import org.springframework.beans.propertyeditors.CustomCollectionEditor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.ExtendedModelMap;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 
 @Controller
 public final class OrganizationController {
     private static final int MAX_PAGE_SIZE = 100;
+    private static final String MODE_PAGE = "page";
+    private static final String MODE_SLICE = "slice";
+    private static final String MODE_KEYSET = "keyset";
+    private static final String TABLE_VIEW = "organizations/_table :: table";
+    private static final int ETAG_DIGEST_BYTES = 16;
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
 
     private final OrganizationService service;
+    private final OrganizationTableCache tableCache;
+    private final ThymeleafViewResolver viewResolver;
+    private final ReferenceLookupService lookupService;
 
-    public OrganizationController(OrganizationService service) {
+    public OrganizationController(
+            OrganizationService service,
+            OrganizationTableCache tableCache,
+            ThymeleafViewResolver viewResolver,
+            ReferenceLookupService lookupService) {
         this.service = service;
+        this.tableCache = tableCache;
+        this.viewResolver = viewResolver;
+        this.lookupService = lookupService;
+    }
+
+    @InitBinder("filterForm")
+    void bindFilterLists(WebDataBinder binder) {
+        // keep a lone filterValue whole; the default String -> List conversion splits it on commas
+        binder.registerCustomEditor(List.class, new CustomCollectionEditor(List.class));
     }
 
     @GetMapping("/")
@@ -39,50 +85,152 @@ public final class OrganizationController {
     }
 
     @GetMapping("/organizations")
-    public String list(@RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String sort,
-    @RequestParam(required = false) String dir,
-    @RequestParam Optional<String> filterField,
-    @RequestParam Optional<String> filterValue,
-    Model model) {
-        Pageable pageable = buildPageable(page, size, sort, dir);
-        OrganizationFilter filter = new OrganizationFilter(filterField, filterValue);
-        Page<Organization> data = service.list(filter, pageable);
-        model.addAttribute("page", data);
-        model.addAttribute("filterField", filter.field().orElse(null));
-        model.addAttribute("filterValue", filter.value().orElse(null));
-        model.addAttribute("sort", sort);
-        model.addAttribute("dir", dir);
+    public String list(@ModelAttribute("pageForm") OrganizationPageForm pageForm,
+            @ModelAttribute("filterForm") OrganizationFilterForm filterForm,
+            Model model) {
+        Pageable pageable = buildPageable(pageForm);
+        OrganizationFilter filter = filterForm.toFilter();
+        model.addAttribute("tableEtag",
+                tableEtag(service.dataVersion(), tableQuery(pageable, pageForm, filter)));
+        populateList(model, pageable, filter, pageForm.getMode(), pageForm.getCursor());
+        model.addAttribute("sort", pageForm.getSort());
+        model.addAttribute("dir", pageForm.getDir());
         model.addAttribute("types", OrganizationType.values());
         return "organizations/index";
     }
 
     @GetMapping("/organizations/table")
-    public String table(@RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String sort,
-            @RequestParam(required = false) String dir,
-            @RequestParam Optional<String> filterField,
-            @RequestParam Optional<String> filterValue,
-            Model model) {
-        Pageable pageable = buildPageable(page, size, sort, dir);
-        OrganizationFilter filter = new OrganizationFilter(filterField, filterValue);
-        Page<Organization> data = service.list(filter, pageable);
-        model.addAttribute("page", data);
+    public ResponseEntity<String> table(@ModelAttribute("pageForm") OrganizationPageForm pageForm,
+            @ModelAttribute("filterForm") OrganizationFilterForm filterForm,
+            ServletWebRequest request) {
+        Pageable pageable = buildPageable(pageForm);
+        OrganizationFilter filter = filterForm.toFilter();
+        long dataVersion = service.dataVersion();
+        String query = tableQuery(pageable, pageForm, filter);
+        if (request.checkNotModified(tableEtag(dataVersion, query))) {
+            return null;
+        }
+        String html = tableCache.get(dataVersion, query, () -> {
+            Model model = new ExtendedModelMap();
+            populateList(model, pageable, filter, pageForm.getMode(), pageForm.getCursor());
+            model.addAttribute("sort", pageForm.getSort());
+            model.addAttribute("dir", pageForm.getDir());
+            return render(TABLE_VIEW, model, request);
+        });
+        return ResponseEntity.ok().contentType(TEXT_HTML_UTF8).body(html);
+    }
+
+    /**
+     * Everything the table fragment depends on besides the data. Raw sort
+     * and dir are included because the fragment echoes them into its links.
+     */
+    private String tableQuery(
+            Pageable pageable,
+            OrganizationPageForm pageForm,
+            OrganizationFilter filter) {
+        return String.join("|",
+                pageForm.getMode(),
+                String.valueOf(pageForm.getCursor()),
+                String.valueOf(pageable.getPageNumber()),
+                String.valueOf(pageable.getPageSize()),
+                String.valueOf(pageForm.getSort()),
+                String.valueOf(pageForm.getDir()),
+                filterQuery(filter));
+    }
+
+    /**
+     * Weak validator for one table view: the same query over the same data
+     * version renders the same rows, so a match skips both the query and the
+     * template. The data version only counts this node's writes, so the tag
+     * also changes with the table cache's TTL window, and the query goes in
+     * as 128 bits of its SHA-256 so two views practically never share a tag.
+     */
+    private String tableEtag(long dataVersion, String query) {
+        return "W/\"%x-%x-%s\"".formatted(dataVersion, tableCache.window(), digest(query));
+    }
+
+    private static String digest(String query) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(Arrays.copyOf(hash, ETAG_DIGEST_BYTES));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /** Renders {@code viewName} into a string so the result can be shared between requests. */
+    private String render(String viewName, Model model, ServletWebRequest request) {
+        StringWriter html = new StringWriter();
+        PrintWriter writer = new PrintWriter(html);
+        HttpServletResponse capture = new HttpServletResponseWrapper(request.getResponse()) {
+            @Override
+            public PrintWriter getWriter() {
+                return writer;
+            }
+        };
+        try {
+            View view = viewResolver.resolveViewName(viewName, RequestContextUtils.getLocale(request.getRequest()));
+            if (view == null) {
+                throw new IllegalStateException("No view for " + viewName);
+            }
+            view.render(model.asMap(), request.getRequest(), capture);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to render " + viewName, ex);
+        }
+        writer.flush();
+        return html.toString();
+    }
+
+    private void populateList(
+            Model model,
+            Pageable pageable,
+            OrganizationFilter filter,
+            String mode,
+            String cursor) {
+        switch (mode) {
+            case MODE_PAGE -> model.addAttribute("page", service.list(filter, pageable));
+            case MODE_SLICE -> model.addAttribute("page", service.listSlice(filter, pageable));
+            case MODE_KEYSET -> {
+                OrganizationScroll scroll = service.scroll(filter, pageable, cursor);
+                model.addAttribute("page", scroll.slice());
+                model.addAttribute("cursor", cursor);
+                model.addAttribute("nextCursor", scroll.nextCursor());
+            }
+            default -> throw new ValidationException("Неизвестный режим постраничной навигации: " + mode);
+        }
+        model.addAttribute("mode", mode);
         model.addAttribute("filterField", filter.field().orElse(null));
+        model.addAttribute("filterOp", filter.operator().map(FilterOperator::code).orElse(null));
         model.addAttribute("filterValue", filter.value().orElse(null));
-        model.addAttribute("sort", sort);
-        model.addAttribute("dir", dir);
-        return "organizations/_table :: table";
+        model.addAttribute("filterQuery", filterQuery(filter));
+    }
+
+    /** Query string that reproduces {@code filter}, for the pagination links. */
+    private static String filterQuery(OrganizationFilter filter) {
+        StringJoiner query = new StringJoiner("&");
+        for (OrganizationFilter.Condition condition : filter.conditions()) {
+            query.add(queryParam("filterField", condition.field()));
+            query.add(queryParam("filterOp", condition.operator().code()));
+            query.add(queryParam("filterValue", condition.value()));
+        }
+        for (OrganizationFilter.Range range : filter.ranges()) {
+            range.min().ifPresent(min -> query.add(queryParam(range.field() + "Min", min)));
+            range.max().ifPresent(max -> query.add(queryParam(range.field() + "Max", max)));
+        }
+        return query.toString();
+    }
+
+    private static String queryParam(String name, String value) {
+        return name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
 
     @GetMapping("/organizations/new")
     public String createForm(Model model) {
         OrganizationForm form = new OrganizationForm();
         model.addAttribute("form", form);
-        model.addAttribute("coords", service.allCoordinates());
-        model.addAttribute("addresses", service.allAddresses());
+        addPickerSelections(model, form);
         model.addAttribute("types", OrganizationType.values());
         return "organizations/create";
     }
@@ -91,8 +239,7 @@ public final class OrganizationController {
     public String create(@Valid @ModelAttribute("form") OrganizationForm form,
             BindingResult binding, Model model) {
         if (binding.hasErrors()) {
-            model.addAttribute("coords", service.allCoordinates());
-            model.addAttribute("addresses", service.allAddresses());
+            addPickerSelections(model, form);
             model.addAttribute("types", OrganizationType.values());
             return "organizations/create";
         }
@@ -115,8 +262,7 @@ public final class OrganizationController {
         OrganizationForm form = toForm(org);
         model.addAttribute("form", form);
         model.addAttribute("orgId", id);
-        model.addAttribute("coords", service.allCoordinates());
-        model.addAttribute("addresses", service.allAddresses());
+        addPickerSelections(model, form);
         model.addAttribute("types", OrganizationType.values());
         return "organizations/edit";
     }
@@ -127,8 +273,7 @@ public final class OrganizationController {
             BindingResult binding, Model model) {
         if (binding.hasErrors()) {
             model.addAttribute("orgId", id);
-            model.addAttribute("coords", service.allCoordinates());
-            model.addAttribute("addresses", service.allAddresses());
+            addPickerSelections(model, form);
             model.addAttribute("types", OrganizationType.values());
             return "organizations/edit";
         }
@@ -142,13 +287,24 @@ public final class OrganizationController {
         return "redirect:/organizations";
     }
 
-    private Pageable buildPageable(
-            int page,
-            int size,
-            String sort,
-            String dir) {
-        int safePage = Math.max(page, 0);
-        int safeSize = validatePageSize(size);
+    /**
+     * Labels for the rows the address and coordinates pickers currently hold;
+     * the options themselves are fetched by the typeahead.
+     */
+    private void addPickerSelections(Model model, OrganizationForm form) {
+        model.addAttribute("selectedCoordinates",
+                lookupService.coordinatesById(form.getCoordinatesId()).orElse(null));
+        model.addAttribute("selectedOfficialAddress",
+                lookupService.addressById(form.getOfficialAddressId()).orElse(null));
+        model.addAttribute("selectedPostalAddress",
+                lookupService.addressById(form.getPostalAddressId()).orElse(null));
+    }
+
+    private Pageable buildPageable(OrganizationPageForm pageForm) {
+        int safePage = Math.max(pageForm.getPage(), 0);
+        int safeSize = validatePageSize(pageForm.getSize());
+        String sort = pageForm.getSort();
+        String dir = pageForm.getDir();
         if (sort == null || sort.isBlank()) {
             return PageRequest.of(safePage, safeSize);
         }
@@ -156,15 +312,7 @@ public final class OrganizationController {
                 ? Sort.Direction.DESC
                 : Sort.Direction.ASC;
         // only allow sorting by known simple fields
-        List<String> allowed = List.of(
-                "id",
-                "name",
-                "fullName",
-                "annualTurnover",
-                "employeesCount",
-                "rating",
-                "type");
-        if (!allowed.contains(sort)) {
+        if (OrganizationSortField.fromProperty(sort).isEmpty()) {
             return PageRequest.of(safePage, safeSize);
         }
         return PageRequest.of(
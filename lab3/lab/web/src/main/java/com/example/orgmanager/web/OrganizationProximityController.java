@@ -0,0 +1,36 @@
+package com.example.orgmanager.web;
+
+import com.example.orgmanager.service.NearbyOrganization;
+import com.example.orgmanager.service.OrganizationService;
+import jakarta.validation.ValidationException;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/organizations")
+public final class OrganizationProximityController {
+    private final OrganizationService service;
+
+    public OrganizationProximityController(OrganizationService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/nearest")
+    public List<NearbyOrganization> nearest(
+            @RequestParam("x") int x,
+            @RequestParam("y") double y,
+            @RequestParam(value = "k", defaultValue = "10") int limit) {
+        return service.nearestOrganizations(x, y, limit);
+    }
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<Map<String, String>> handleValidation(ValidationException ex) {
+        return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.orgmanager.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rendered organization table fragments, keyed by the normalized list query.
+ * Entries belong to one data version: the first lookup after a committed
+ * write (the same writes that go out as SSE events) drops them all. That
+ * version only counts this node's writes, so within it an entry also lives
+ * for at most the TTL; that is how long writes from other nodes or made
+ * straight in the database can stay unseen.
+ * Concurrent misses for the same query wait for a single render instead of
+ * each running the page query, which is what happens when every subscribed
+ * browser reloads after the same event.
+ */
+@Component
+public class OrganizationTableCache {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long ttlMillis;
+    private final Map<String, Rendered> rendered;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private long version = Long.MIN_VALUE;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public OrganizationTableCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.table-cache.max-entries:256}") int maxEntries,
+            @Value("${app.table-cache.ttl:5s}") Duration ttl) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = ttl.toNanos();
+        this.ttlMillis = Math.max(1, ttl.toMillis());
+        this.rendered = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Rendered> eldest) {
+                return size() > OrganizationTableCache.this.maxEntries;
+            }
+        };
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.coalesced = requests(meterRegistry, "coalesced");
+        Gauge.builder("app.table-cache.size", this, OrganizationTableCache::size)
+                .description("Rendered table fragments held for the current data version")
+                .register(meterRegistry);
+        Gauge.builder("app.table-cache.hit-ratio", this, OrganizationTableCache::hitRatio)
+                .description("Share of table requests answered without a render of their own")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the fragment for {@code query} at {@code dataVersion}, calling
+     * {@code renderer} only if neither the cache nor a concurrent request
+     * already has it. A failed render is rethrown to every waiting request
+     * and not cached.
+     */
+    public String get(long dataVersion, String query, Supplier<String> renderer) {
+        String cached = lookup(dataVersion, query);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        String key = dataVersion + "|" + query;
+        CompletableFuture<String> own = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, own);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+        try {
+            // a previous leader may have stored it between the lookup and putIfAbsent
+            String html = lookup(dataVersion, query);
+            if (html != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                html = renderer.get();
+                store(dataVersion, query, html);
+            }
+            own.complete(html);
+            return html;
+        } catch (RuntimeException | Error ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Number of the current TTL-long window of wall-clock time, the same on
+     * every node. A validator that includes it goes stale no later than a
+     * cached fragment does.
+     */
+    public long window() {
+        return System.currentTimeMillis() / ttlMillis;
+    }
+
+    public int size() {
+        synchronized (rendered) {
+            return rendered.size();
+        }
+    }
+
+    double hitRatio() {
+        double served = hits.count() + coalesced.count();
+        double total = served + misses.count();
+        return total == 0 ? 0d : served / total;
+    }
+
+    private String lookup(long dataVersion, String query) {
+        synchronized (rendered) {
+            if (dataVersion != version) {
+                if (dataVersion > version) {
+                    rendered.clear();
+                    version = dataVersion;
+                }
+                return null;
+            }
+            Rendered cached = rendered.get(query);
+            if (cached == null || System.nanoTime() - cached.renderedAt() >= ttlNanos) {
+                if (cached != null) {
+                    rendered.remove(query);
+                }
+                return null;
+            }
+            return cached.html();
+        }
+    }
+
+    private void store(long dataVersion, String query, String html) {
+        synchronized (rendered) {
+            // a render that outlived its version must not land in the newer generation
+            if (dataVersion == version) {
+                rendered.put(query, new Rendered(html, System.nanoTime()));
+            }
+        }
+    }
+
+    private static String await(CompletableFuture<String> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.table-cache.requests")
+                .description("Organization table fragment requests by how they were served")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Rendered(String html, long renderedAt) {
+    }
+}
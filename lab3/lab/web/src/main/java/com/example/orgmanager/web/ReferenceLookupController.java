@@ -0,0 +1,48 @@
+package com.example.orgmanager.web;
+
+import com.example.orgmanager.service.lookup.AddressOption;
+import com.example.orgmanager.service.lookup.CoordinatesOption;
+import com.example.orgmanager.service.lookup.LookupPage;
+import com.example.orgmanager.service.lookup.ReferenceLookupService;
+import jakarta.validation.ValidationException;
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/lookup")
+public final class ReferenceLookupController {
+    private final ReferenceLookupService service;
+
+    public ReferenceLookupController(ReferenceLookupService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/addresses")
+    public LookupPage<AddressOption> addresses(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return service.addresses(query, page, size);
+    }
+
+    @GetMapping("/coordinates")
+    public LookupPage<CoordinatesOption> coordinates(
+            @RequestParam(required = false) Integer minX,
+            @RequestParam(required = false) Integer maxX,
+            @RequestParam(required = false) Float minY,
+            @RequestParam(required = false) Float maxY,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return service.coordinates(minX, maxX, minY, maxY, page, size);
+    }
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<Map<String, String>> handleValidation(ValidationException ex) {
+        return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+    }
+}
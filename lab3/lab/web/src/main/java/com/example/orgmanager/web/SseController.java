@@ -7,6 +7,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -22,11 +24,14 @@ public final class SseController {
             path = "/events/organizations",
             produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public ResponseEntity<SseEmitter> subscribeOrganizations(
+            @RequestParam(defaultValue = "false") boolean delta,
+            @RequestHeader(value = "Last-Event-ID", required = false)
+            String lastEventId,
             HttpServletRequest request) {
         if (request.getDispatcherType() != DispatcherType.REQUEST) {
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .build();
         }
-        return ResponseEntity.ok(publisher.subscribe());
+        return ResponseEntity.ok(publisher.subscribe(delta, lastEventId));
     }
 }
@@ -3,14 +3,16 @@
     const container = document.getElementById('org-table');
     if (!container) return;
     const qs = window.location.search || '';
-    const bust = (qs && qs.length > 0) ? `${qs}&_rt=${Date.now()}` : `?_rt=${Date.now()}`;
+    const headers = { 'X-Requested-With': 'fetch' };
+    // ETag of the rendered table; the server answers 304 while the data version is unchanged
+    if (container.dataset.etag) headers['If-None-Match'] = container.dataset.etag;
     try {
-      const resp = await fetch(`/organizations/table${bust}`, {
-        headers: { 'X-Requested-With': 'fetch', 'Cache-Control': 'no-cache' },
-        cache: 'no-store'
-      });
+      const resp = await fetch(`/organizations/table${qs}`, { headers, cache: 'no-store' });
+      if (resp.status === 304) return;
       if (resp.ok) {
         container.innerHTML = await resp.text();
+        const etag = resp.headers.get('ETag');
+        if (etag) container.dataset.etag = etag; else delete container.dataset.etag;
       } else {
         window.location.reload();
       }
@@ -26,6 +28,43 @@
     reloadTmr = setTimeout(() => { reloadTmr = null; reloadTable(); }, 150);
   }
 
+  // Поля, от которых зависят порядок строк и состав текущей страницы
+  function viewFields() {
+    const params = new URLSearchParams(window.location.search);
+    const fields = new Set([params.get('sort') || 'id']);
+    const values = params.getAll('filterValue');
+    params.getAll('filterField').forEach((field, i) => {
+      if (field && (values[i] || '').trim()) fields.add(field.trim());
+    });
+    ['annualTurnover', 'employeesCount', 'rating'].forEach(field => {
+      if ((params.get(field + 'Min') || '').trim() || (params.get(field + 'Max') || '').trim()) fields.add(field);
+    });
+    return fields;
+  }
+
+  // Применяет изменение к таблице на месте; false — нужно перезапросить таблицу
+  function applyChange(container, change) {
+    if (!change || change.id == null) return false;
+    const tr = container.querySelector(`tr[data-id="${change.id}"]`);
+    if (change.type === 'updated' && change.row) {
+      const fields = viewFields();
+      if ((change.changed || []).some(field => fields.has(field))) return false;
+      if (tr) {
+        tr.querySelectorAll('[data-field]').forEach(td => {
+          const value = change.row[td.dataset.field];
+          if (value != null) td.textContent = value;
+        });
+      }
+      return true;
+    }
+    // в режиме keyset удаление строки вне страницы не сдвигает остальные
+    if (change.type === 'deleted' && !tr) {
+      return new URLSearchParams(window.location.search).get('mode') === 'keyset';
+    }
+    // создание и удаление видимой строки меняют состав страницы
+    return false;
+  }
+
   function setRequired(id, required) {
     const el = document.getElementById(id);
     if (!el) return;
@@ -61,19 +100,95 @@
     setRequired('postalStreet', !!needPost);
   }
 
-  function bindFill(selId, map) {
-    const sel = document.getElementById(selId);
-    if (!sel) return;
-    function fill() {
-      const opt = sel.options[sel.selectedIndex];
-      if (!opt || !opt.value) return; // only when existing selected
-      Object.entries(map).forEach(([k, attr]) => {
-        const el = document.getElementById(k);
-        if (el) el.value = opt.getAttribute(attr) ?? '';
+  // Half-width of the box searched around the typed coordinates
+  const COORDINATES_WINDOW = 5;
+
+  const LOOKUPS = {
+    addresses: {
+      url: (q) => `/api/lookup/addresses?size=20&q=${encodeURIComponent(q)}`,
+      label: (a) => `id=${a.id} ${a.street}${a.zipCode == null ? '' : ' ' + a.zipCode}`
+    },
+    coordinates: {
+      url: (q) => {
+        const parts = q.split(/[\s,;]+/).filter(Boolean);
+        const params = new URLSearchParams({ size: '20' });
+        if (parts.length > 0) {
+          const x = Number(parts[0]);
+          if (!Number.isInteger(x)) return null;
+          params.set('minX', x - COORDINATES_WINDOW);
+          params.set('maxX', x + COORDINATES_WINDOW);
+        }
+        if (parts.length > 1) {
+          const y = Number(parts[1]);
+          if (Number.isNaN(y)) return null;
+          params.set('minY', y - COORDINATES_WINDOW);
+          params.set('maxY', y + COORDINATES_WINDOW);
+        }
+        return `/api/lookup/coordinates?${params}`;
+      },
+      label: (c) => `id=${c.id} x=${c.x} y=${c.y}`
+    }
+  };
+
+  // Typeahead over /api/lookup: the picked id goes into the hidden input, its fields into data-fill targets
+  function bindLookup(root) {
+    const kind = LOOKUPS[root.dataset.lookup];
+    const hidden = document.getElementById(root.dataset.target);
+    const input = root.querySelector('[data-lookup-input]');
+    const list = root.querySelector('[data-lookup-results]');
+    if (!kind || !hidden || !input || !list) return;
+    const fill = JSON.parse(root.dataset.fill || '{}');
+    let timer = null;
+    let seq = 0;
+
+    function setSelection(value) {
+      if (hidden.value === value) return;
+      hidden.value = value;
+      hidden.dispatchEvent(new Event('change'));
+    }
+
+    function select(item) {
+      input.value = kind.label(item);
+      Object.entries(fill).forEach(([id, prop]) => {
+        const el = document.getElementById(id);
+        if (el) el.value = item[prop] ?? '';
       });
+      list.classList.add('hidden');
+      setSelection(String(item.id));
     }
-    sel.addEventListener('change', fill);
-    fill();
+
+    async function search() {
+      const url = kind.url(input.value.trim());
+      if (!url) {
+        list.classList.add('hidden');
+        return;
+      }
+      const mine = ++seq;
+      try {
+        const resp = await fetch(url, { headers: { 'Accept': 'application/json' } });
+        if (!resp.ok || mine !== seq) return;
+        const data = await resp.json();
+        list.replaceChildren(...data.items.map(item => {
+          const li = document.createElement('li');
+          li.className = 'px-3 py-2 cursor-pointer hover:bg-gray-100';
+          li.textContent = kind.label(item);
+          // mousedown fires before the input's blur hides the list
+          li.addEventListener('mousedown', (e) => { e.preventDefault(); select(item); });
+          return li;
+        }));
+        list.classList.toggle('hidden', data.items.length === 0);
+      } catch (e) {
+        console.warn('Lookup failed', e);
+      }
+    }
+
+    input.addEventListener('input', () => {
+      setSelection(''); // editing the text drops the picked row
+      if (timer) clearTimeout(timer);
+      timer = setTimeout(() => { timer = null; search(); }, 200);
+    });
+    input.addEventListener('focus', () => { if (!hidden.value) search(); });
+    input.addEventListener('blur', () => list.classList.add('hidden'));
   }
 
   function updatePostalDisabled() {
@@ -85,10 +200,8 @@
   }
 
   function init() {
-    // Autofill from selected existing options
-    bindFill('coordinatesId', { coordX: 'data-x', coordY: 'data-y' });
-    bindFill('officialAddressId', { officialStreet: 'data-street', officialZipCode: 'data-zip' });
-    bindFill('postalAddressId', { postalStreet: 'data-street', postalZipCode: 'data-zip' });
+    // Pick existing coordinates and addresses; the choice fills the fields below
+    document.querySelectorAll('[data-lookup]').forEach(bindLookup);
 
     // Disable postal fields if same as official
     updatePostalDisabled();
@@ -108,7 +221,8 @@
     // Subscribe to SSE updates and refresh table on changes from other users
     try {
       if (!!window.EventSource) {
-        const es = new EventSource('/events/organizations');
+        // поток с дельтами: строки правятся на месте, таблица запрашивается, только если меняется её состав
+        const es = new EventSource('/events/organizations?delta=true');
         const closeSse = () => { try { es.close(); } catch (_) { } };
         window.addEventListener('beforeunload', closeSse);
         window.addEventListener('pagehide', closeSse);
@@ -129,7 +243,33 @@
           }
         };
 
+        // изменения, пришедшие в одном окне (например, при импорте), сервер шлёт пачкой:
+        // {"created":[…],"updated":[…],"deleted":[…]} — хватает одной перезагрузки
+        const batchHandler = () => {
+          if (!document.getElementById('org-table')) return;
+          scheduleReload();
+        };
+
+        const rowsHandler = (ev) => {
+          const container = document.getElementById('org-table');
+          if (!container) return;
+          try {
+            const changes = JSON.parse(ev.data);
+            // every(), а не some(): после первой же перезагрузки остальные изменения уже не нужны
+            if (!Array.isArray(changes) || !changes.every(change => applyChange(container, change))) {
+              scheduleReload();
+            }
+          } catch (e) {
+            scheduleReload();
+          }
+        };
+
         es.addEventListener('org', handler);
+        es.addEventListener('org-batch', batchHandler);
+        es.addEventListener('org-rows', rowsHandler);
+        // после переподключения сервер досылает пропущенное по Last-Event-ID,
+        // а если пропущенного уже нет в буфере — присылает resync
+        es.addEventListener('resync', batchHandler);
         es.onmessage = handler; // на случай, если имя события не проставлено
         // ping/ready можно игнорировать
       }